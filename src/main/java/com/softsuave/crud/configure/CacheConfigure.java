@@ -0,0 +1,21 @@
+package com.softsuave.crud.configure;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Memory Comment:
+ * Turns on Spring's @Cacheable / @CachePut / @CacheEvict annotations.
+ *
+ * The cache itself (Caffeine, max size, TTL) is configured in
+ * application.properties under 'spring.cache.*'. Spring Boot registers every
+ * cache named there with Micrometer, so hit/miss/eviction counts show up at
+ * /actuator/metrics/cache.gets and /actuator/metrics/cache.evictions.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfigure {
+
+    // Cache of StudentResponseDTO, keyed by student id
+    public static final String STUDENTS_CACHE = "students";
+}
@@ -0,0 +1,80 @@
+package com.softsuave.crud.configure;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Memory Comment:
+ * Read/write splitting. Only active when a replica is configured
+ * (student.datasource.replica.url); otherwise Spring Boot's single
+ * datasource is used exactly as before.
+ *
+ *   spring.datasource.*                  → primary pool (all writes)
+ *   student.datasource.replica.*         → replica pool (read-only transactions)
+ *   student.datasource.replica.hikari.*  → replica pool tuning
+ *
+ * The DataSource every component sees (JPA, JdbcTemplate, ...) is
+ *   LazyConnectionDataSourceProxy → ReplicaRoutingDataSource → primary | replica
+ *
+ * Schema changes (ddl-auto) run outside a read-only transaction, so they
+ * always hit the primary; the replica gets them through replication.
+ */
+@Configuration
+@ConditionalOnProperty(name = "student.datasource.replica.url")
+public class DataSourceRoutingConfigure {
+
+    private static final Logger logger = LoggerFactory.getLogger(DataSourceRoutingConfigure.class);
+
+    @Bean
+    @Primary
+    @ConfigurationProperties("spring.datasource")
+    public DataSourceProperties primaryDataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(
+            @Qualifier("primaryDataSourceProperties") DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("student.datasource.replica")
+    public DataSourceProperties replicaDataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    @Bean
+    @ConfigurationProperties("student.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(
+            @Qualifier("replicaDataSourceProperties") DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 @Value("${student.datasource.replica.retry-after-ms:30000}") long retryAfterMs) {
+        logger.info("Read/write splitting enabled — read-only transactions use the replica (fallback retry {} ms)", retryAfterMs);
+        return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primary, replica, retryAfterMs));
+    }
+}
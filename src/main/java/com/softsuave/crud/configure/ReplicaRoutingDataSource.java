@@ -0,0 +1,78 @@
+package com.softsuave.crud.configure;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * Memory Comment:
+ * Sends work inside @Transactional(readOnly = true) to the replica pool and
+ * everything else (writes, and anything outside a read-only transaction)
+ * to the primary.
+ *
+ * Must sit behind a LazyConnectionDataSourceProxy (see
+ * DataSourceRoutingConfigure): the transaction manager asks for a connection
+ * before Spring has marked the transaction read-only, so the choice has to
+ * wait until the first statement actually needs a connection.
+ *
+ * Fallback: if the replica cannot hand out a connection, the read goes to
+ * the primary instead, and the replica is skipped for 'retryAfterMs' so
+ * every request does not wait for the same timeout.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    public static final String PRIMARY = "primary";
+    public static final String REPLICA = "replica";
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final long retryAfterMs;
+
+    // Until when (System.currentTimeMillis) the replica is considered down
+    private volatile long replicaDownUntil = 0;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, long retryAfterMs) {
+        this.primary = primary;
+        this.replica = replica;
+        this.retryAfterMs = retryAfterMs;
+        setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        boolean readOnly = TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        return readOnly && System.currentTimeMillis() >= replicaDownUntil ? REPLICA : PRIMARY;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (PRIMARY.equals(determineCurrentLookupKey())) {
+            return primary.getConnection();
+        }
+        try {
+            return replica.getConnection();
+        } catch (SQLException e) {
+            replicaDownUntil = System.currentTimeMillis() + retryAfterMs;
+            logger.warn("Read replica unavailable ({}); sending reads to the primary for the next {} ms",
+                    e.getMessage(), retryAfterMs);
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        // Pools are configured with their own credentials
+        return getConnection();
+    }
+}
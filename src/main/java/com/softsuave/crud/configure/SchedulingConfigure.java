@@ -0,0 +1,13 @@
+package com.softsuave.crud.configure;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Memory Comment:
+ * Turns on @Scheduled methods (e.g. the resume blob sweeper in ResumeBlobStore).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfigure {
+}
@@ -1,6 +1,7 @@
 package com.softsuave.crud.configure;
 
 import com.softsuave.crud.filters.JwtAuthFilter;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -57,6 +58,9 @@ public class SecurityConfigure {
                 //  Define authorization rules
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("api/validateotp","api/signup", "/authenticate", "/auth/login").permitAll()
+                        // Memory: Streaming responses (SSE feed, export) finish on an ASYNC dispatch that
+                        // carries no JWT; the original request was already authenticated.
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .anyRequest().authenticated()
                 )
 
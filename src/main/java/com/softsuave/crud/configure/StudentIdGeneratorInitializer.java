@@ -0,0 +1,52 @@
+package com.softsuave.crud.configure;
+
+import com.softsuave.crud.entity.Student;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Memory Comment:
+ * Student ids used to come from MySQL AUTO_INCREMENT. They now come from the
+ * pooled 'id_generator' table (see Student.id), which starts counting at 1.
+ *
+ * On startup this runner moves the 'student' generator row past the highest
+ * existing id, so new students never collide with rows that were created
+ * before the switch. It only ever moves the value forward.
+ */
+@Component
+public class StudentIdGeneratorInitializer implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(StudentIdGeneratorInitializer.class);
+
+    private static final String GENERATOR_NAME = "student";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM student", Long.class);
+        // One full allocation block of head-room, so the first block Hibernate hands out is clear of maxId
+        long floor = (maxId == null ? 0 : maxId) + Student.ID_ALLOCATION_SIZE + 1;
+
+        List<Long> current = jdbcTemplate.queryForList(
+                "SELECT next_val FROM id_generator WHERE gen_name = ?", Long.class, GENERATOR_NAME);
+
+        if (current.isEmpty()) {
+            jdbcTemplate.update("INSERT INTO id_generator (gen_name, next_val) VALUES (?, ?)", GENERATOR_NAME, floor);
+            logger.info("Seeded student id generator at {}", floor);
+        } else if (current.get(0) < floor) {
+            jdbcTemplate.update("UPDATE id_generator SET next_val = ? WHERE gen_name = ?", floor, GENERATOR_NAME);
+            logger.info("Moved student id generator from {} to {}", current.get(0), floor);
+        } else {
+            logger.debug("Student id generator already at {} (max id {})", current.get(0), maxId);
+        }
+    }
+}
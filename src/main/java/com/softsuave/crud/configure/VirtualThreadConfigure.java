@@ -0,0 +1,45 @@
+package com.softsuave.crud.configure;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Memory Comment:
+ * Extra wiring for the virtual-thread mode (profile 'virtual', see
+ * application-virtual.properties). Only active when
+ * spring.threads.virtual.enabled=true.
+ *
+ * On Java 21 a virtual thread that blocks inside a 'synchronized' block is
+ * "pinned": it keeps its carrier (platform) thread busy. Jakarta Mail's SMTP
+ * transport does its network I/O inside synchronized methods, so a slow SMTP
+ * server could pin every carrier thread. EmailService therefore hands the
+ * actual send to this small pool of ordinary platform threads, while the
+ * calling virtual thread just waits (without pinning) for the result.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfigure {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadConfigure.class);
+
+    public static final String MAIL_SENDER_EXECUTOR = "mailSenderExecutor";
+
+    @Bean(name = MAIL_SENDER_EXECUTOR, destroyMethod = "shutdown")
+    public ExecutorService mailSenderExecutor(@Value("${mail.sender.platform-threads:4}") int threads) {
+        logger.info("Virtual threads enabled — SMTP sends will run on {} platform threads", threads);
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "mail-sender-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
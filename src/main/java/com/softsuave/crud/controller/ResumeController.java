@@ -1,9 +1,16 @@
 package com.softsuave.crud.controller;
 
+import com.softsuave.crud.dto.BlobCacheStatsDTO;
+import com.softsuave.crud.dto.ResumePageResponseDTO;
 import com.softsuave.crud.dto.ResumeRequestDTO;
 import com.softsuave.crud.dto.ResumeResponseDTO;
 import com.softsuave.crud.entity.Resume;
+import com.softsuave.crud.entity.Users;
 import com.softsuave.crud.service.ResumeService;
+import com.softsuave.crud.storage.BlobDownloads;
+import com.softsuave.crud.storage.BlobMemoryCache;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -31,9 +38,10 @@ import static org.springframework.http.HttpStatus.CREATED;
  *  @RequestMapping("/resumes") → Sets the base path for all endpoints here.
  *
  * Example Endpoints:
- *   GET    /resumes           → Get all resumes
- *   GET    /resumes/{id}      → Get a resume by ID
- *   POST   /resumes/{id}/add  → Add a resume for a specific student
+ *   GET    /resumes                → One page of resume metadata (?size=&after=)
+ *   GET    /resumes/{id}           → Get a resume's metadata by ID
+ *   GET    /resumes/{id}/download  → Stream the resume file
+ *   POST   /resumes/{id}/add       → Add a resume for a specific student
  */
 @RestController
 @RequestMapping("/resumes")
@@ -45,21 +53,30 @@ public class ResumeController {
     @Autowired
     private ResumeService resumeService;
 
+    @Autowired
+    private BlobDownloads blobDownloads;
+
+    @Autowired
+    private BlobMemoryCache blobMemoryCache;
+
     /**
-     * ---------------------- GET ALL RESUMES ----------------------
-     * Endpoint: GET /resumes
+     * ---------------------- GET RESUMES (PAGED) ----------------------
+     * Endpoint: GET /resumes?size=20&after=<nextCursor>
      * Access: Only ADMIN can access this.
-     * Purpose: Fetch all resumes stored in the database.
+     * Purpose: Page through resume metadata (id, title, file name, type, size,
+     * hash). No file bytes are included — use GET /resumes/{id}/download.
      */
     @PreAuthorize("hasRole('ADMIN')")
     @GetMapping
-    public ResponseEntity<List<ResumeResponseDTO>> getAllResumes() {
-        logger.info("GET /resumes - Request received to fetch all resumes");
+    public ResponseEntity<ResumePageResponseDTO> getAllResumes(
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String after) {
+        logger.info("GET /resumes - Request received (size: {})", size);
 
-        List<ResumeResponseDTO> resumes = resumeService.getAllResumes();
+        ResumePageResponseDTO page = resumeService.getResumesPage(size, after);
 
-        logger.info("GET /resumes - Returning {} resumes", resumes.size());
-        return ResponseEntity.ok(resumes);
+        logger.info("GET /resumes - Returning {} resumes", page.getSize());
+        return ResponseEntity.ok(page);
     }
 
     /**
@@ -79,6 +96,38 @@ public class ResumeController {
         return ResponseEntity.ok(resume);
     }
 
+    /**
+     * ---------------------- DOWNLOAD RESUME BY ID ----------------------
+     * Endpoint: GET /resumes/{id}/download
+     * Access: USER or ADMIN (same as GET /resumes/{id}).
+     * Purpose: Stream one resume file (Range, sendfile and gzip as for /download/me).
+     */
+    @GetMapping("/{id}/download")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<?> downloadResume(@PathVariable Long id,
+                                            HttpServletRequest request,
+                                            HttpServletResponse response) {
+        logger.info("GET /resumes/{}/download - Request received", id);
+
+        Resume resume = resumeService.getResumeWithFile(id);
+        String headerValue = "attachment; filename=\"" + resume.getFileName() + "\"";
+
+        return blobDownloads.serve(resumeService.resumeFilePath(resume), resume.getFileSize(), resume.getContentHash(),
+                resume.getContentEncoding(), MediaType.parseMediaType(resume.getFileType()), headerValue, request, response);
+    }
+
+    /**
+     * ---------------------- DOWNLOAD CACHE STATS ----------------------
+     * Endpoint: GET /resumes/cache/stats
+     * Access: Only ADMIN.
+     * Purpose: Hit ratio and bytes held by the off-heap cache of hot resume files.
+     */
+    @GetMapping("/cache/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BlobCacheStatsDTO> getCacheStats() {
+        return ResponseEntity.ok(blobMemoryCache.stats());
+    }
+
     /**
      * ---------------------- ADD RESUME ----------------------
      * Endpoint: POST /resumes/{id}/add
@@ -109,22 +158,29 @@ public class ResumeController {
         return "file uploaded and has been saved";
     }
 
+    /**
+     * ---------------------- DOWNLOAD MY RESUME ----------------------
+     * Endpoint: GET /resumes/download/me
+     * Access: Any authenticated user (their own resume only).
+     * Purpose: Stream the stored file. Supports Range (206 Partial Content) so
+     * interrupted downloads can resume, and sendfile on Tomcat so the bytes go
+     * from disk to socket without passing through the heap. Files stored
+     * gzip-compressed are sent as-is with Content-Encoding: gzip.
+     */
     @GetMapping("/download/me")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<byte[]> downloadMyResume(Authentication authentication){
-
-        String username=authentication.getName();
-
-        Resume resume=resumeService.getResumeForAuthenticatedUser(username);
+    public ResponseEntity<?> downloadMyResume(Authentication authentication,
+                                              HttpServletRequest request,
+                                              HttpServletResponse response){
 
+        // JwtAuthFilter puts the Users entity in the context: reuse its id, no second user lookup
+        Resume resume=authentication.getPrincipal() instanceof Users user
+                ? resumeService.getResumeForUser(user.getId())
+                : resumeService.getResumeForAuthenticatedUser(authentication.getName());
 
         String headerValue="attachment; filename=\""+resume.getFileName()+"\"";
 
-
-        
-        return ResponseEntity.ok()
-                .contentType(MediaType.parseMediaType(resume.getFileType()))
-                .header(HttpHeaders.CONTENT_DISPOSITION,headerValue)
-                .body(resume.getFileData());
+        return blobDownloads.serve(resumeService.resumeFilePath(resume), resume.getFileSize(), resume.getContentHash(),
+                resume.getContentEncoding(), MediaType.parseMediaType(resume.getFileType()), headerValue, request, response);
     }
 }
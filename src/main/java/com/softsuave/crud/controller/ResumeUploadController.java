@@ -0,0 +1,123 @@
+package com.softsuave.crud.controller;
+
+import com.softsuave.crud.dto.ResumeResponseDTO;
+import com.softsuave.crud.dto.ResumeUploadDTO;
+import com.softsuave.crud.dto.ResumeUploadRequestDTO;
+import com.softsuave.crud.entity.Resume;
+import com.softsuave.crud.service.ResumeUploadService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.net.URI;
+
+/**
+ * ----------------------- RESUME UPLOAD CONTROLLER -----------------------
+ * Resumable, chunked uploads for large resume files (see ResumeUploadService).
+ *
+ * Client flow:
+ *   1 POST   /resumes/uploads  {studentId, title, fileName, fileType, length}
+ *            → 201, Location: /resumes/uploads/{id}
+ *   2 PATCH  /resumes/uploads/{id}   Content-Type: application/offset+octet-stream
+ *            Upload-Offset: <n>   [Upload-Checksum: sha256 <base64>]   body = next chunk
+ *            → 204, Upload-Offset: <new n>     (repeat until n == length)
+ *   3 after a dropped connection: HEAD /resumes/uploads/{id} → Upload-Offset, resume at step 2
+ *   4 POST   /resumes/uploads/{id}/finish → 201, the new resume's metadata
+ *
+ * Errors: 409 wrong offset / busy / incomplete, 460 checksum mismatch, 404 unknown or expired upload.
+ */
+@RestController
+@RequestMapping("/resumes/uploads")
+public class ResumeUploadController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResumeUploadController.class);
+
+    public static final String UPLOAD_OFFSET = "Upload-Offset";
+    public static final String UPLOAD_LENGTH = "Upload-Length";
+    public static final String UPLOAD_EXPIRES = "Upload-Expires";
+    public static final String UPLOAD_CHECKSUM = "Upload-Checksum";
+    public static final String OFFSET_OCTET_STREAM = "application/offset+octet-stream";
+
+    @Autowired
+    private ResumeUploadService uploadService;
+
+    @PostMapping
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<ResumeUploadDTO> createUpload(@RequestBody ResumeUploadRequestDTO request,
+                                                        Authentication authentication) {
+        logger.info("POST /resumes/uploads - student {}, {} bytes", request.getStudentId(), request.getLength());
+
+        ResumeUploadDTO upload = uploadService.create(authentication.getName(), request);
+
+        return ResponseEntity.created(URI.create("/resumes/uploads/" + upload.getId()))
+                .headers(headers -> uploadHeaders(headers, upload))
+                .body(upload);
+    }
+
+    @RequestMapping(value = "/{id}", method = RequestMethod.HEAD)
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<Void> uploadStatus(@PathVariable String id, Authentication authentication) {
+        ResumeUploadDTO upload = uploadService.status(authentication.getName(), id);
+
+        // The offset changes with every chunk: never let a proxy answer this
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .headers(headers -> uploadHeaders(headers, upload))
+                .build();
+    }
+
+    @PatchMapping(value = "/{id}", consumes = OFFSET_OCTET_STREAM)
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<Void> appendChunk(@PathVariable String id,
+                                            @RequestHeader(UPLOAD_OFFSET) long offset,
+                                            @RequestHeader(value = UPLOAD_CHECKSUM, required = false) String checksum,
+                                            HttpServletRequest request,
+                                            Authentication authentication) throws IOException {
+        logger.debug("PATCH /resumes/uploads/{} - offset {}", id, offset);
+
+        ResumeUploadDTO upload = uploadService.appendChunk(authentication.getName(), id, offset, checksum,
+                request.getInputStream());
+
+        return ResponseEntity.noContent()
+                .headers(headers -> uploadHeaders(headers, upload))
+                .build();
+    }
+
+    @PostMapping("/{id}/finish")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<ResumeResponseDTO> finishUpload(@PathVariable String id, Authentication authentication) {
+        logger.info("POST /resumes/uploads/{}/finish", id);
+
+        Resume resume = uploadService.finish(authentication.getName(), id);
+
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(new ResumeResponseDTO(resume.getId(), resume.getResumeTitle(), resume.getFileName(),
+                        resume.getFileType(), resume.getFileSize(), resume.getContentHash()));
+    }
+
+    @DeleteMapping("/{id}")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<Void> cancelUpload(@PathVariable String id, Authentication authentication) {
+        logger.info("DELETE /resumes/uploads/{}", id);
+
+        uploadService.cancel(authentication.getName(), id);
+        return ResponseEntity.noContent().build();
+    }
+
+    // ---------------------- HELPER METHODS ----------------------
+
+    private static void uploadHeaders(HttpHeaders headers, ResumeUploadDTO upload) {
+        headers.set(UPLOAD_OFFSET, String.valueOf(upload.getOffset()));
+        headers.set(UPLOAD_LENGTH, String.valueOf(upload.getLength()));
+        headers.set(UPLOAD_EXPIRES, upload.getExpiresAt().toString());
+    }
+}
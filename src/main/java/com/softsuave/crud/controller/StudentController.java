@@ -1,18 +1,48 @@
 package com.softsuave.crud.controller;
 
+import com.softsuave.crud.dto.BranchStatsDTO;
+import com.softsuave.crud.dto.LeaderboardEntryDTO;
+import com.softsuave.crud.dto.StudentBatchResponseDTO;
+import com.softsuave.crud.dto.StudentBulkRequestDTO;
+import com.softsuave.crud.dto.StudentBulkResultDTO;
+import com.softsuave.crud.dto.StudentChangesResponseDTO;
+import com.softsuave.crud.dto.StudentImportResponseDTO;
+import com.softsuave.crud.dto.StudentPageResponseDTO;
 import com.softsuave.crud.dto.StudentRequestDTO;
+import com.softsuave.crud.dto.StudentRankDTO;
 import com.softsuave.crud.dto.StudentResponseDTO;
+import com.softsuave.crud.dto.StudentSuggestionDTO;
+import com.softsuave.crud.exception.StudentNotFoundException;
+import com.softsuave.crud.feed.ChangeFeedBroadcaster;
+import com.softsuave.crud.search.StudentNameIndex;
+import com.softsuave.crud.service.StudentBatchService;
+import com.softsuave.crud.service.StudentBulkService;
+import com.softsuave.crud.service.StudentExportService;
+import com.softsuave.crud.service.StudentImportService;
 import com.softsuave.crud.service.StudentService;
+import com.softsuave.crud.service.StudentSyncService;
+import com.softsuave.crud.stats.BranchStatistics;
+import com.softsuave.crud.stats.PercentageLeaderboard;
+import com.softsuave.crud.utility.StudentETags;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.HttpStatus;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/students")
@@ -24,27 +54,225 @@ public class StudentController {
     @Autowired
     private StudentService studentService; // Injecting the service layer
 
+    @Autowired
+    private StudentExportService studentExportService;
+
+    @Autowired
+    private StudentBatchService studentBatchService;
+
+    @Autowired
+    private StudentImportService studentImportService;
+
+    @Autowired
+    private StudentBulkService studentBulkService;
+
+    @Autowired
+    private StudentNameIndex studentNameIndex;
+
+    @Autowired
+    private BranchStatistics branchStatistics;
+
+    @Autowired
+    private PercentageLeaderboard percentageLeaderboard;
+
+    @Autowired
+    private ChangeFeedBroadcaster changeFeedBroadcaster;
+
+    @Autowired
+    private StudentSyncService studentSyncService;
+
     /**
-     * ---------------------- GET ALL STUDENTS ----------------------
-     * Endpoint: GET /students
-     * Purpose: Fetch all student records.
+     * ---------------------- GET STUDENTS (PAGINATED) ----------------------
+     * Endpoint: GET /students?size=20&sort=branch&after={nextCursor}
+     * Purpose: Fetch one page of student records using keyset pagination.
+     * The response carries a 'nextCursor' — pass it back as 'after' to get the
+     * next page. It is null on the last page.
+     * Caching: The ETag is a digest of the page's (id, version) pairs; a matching
+     * If-None-Match gets 304 Not Modified with no body.
      * Logging: Starts and ends the request for traceability.
      */
     @GetMapping
-    public ResponseEntity<List<StudentResponseDTO>> getAllStudents() {
-        logger.info("GET /students - Request received");
+    public ResponseEntity<StudentPageResponseDTO> getAllStudents(
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false, defaultValue = "id") String sort) {
+        logger.info("GET /students - Request received (size: {}, sort: {})", size, sort);
+
+        // Calls service layer to fetch one page of students from DB
+        StudentPageResponseDTO page = studentService.getStudentsPage(size, after, sort);
 
-        // Calls service layer to fetch all students from DB
-        List<StudentResponseDTO> students = studentService.getAllStudents();
+        logger.info("GET /students - Returning {} students", page.getSize());
+        // Spring turns this into 304 Not Modified when If-None-Match matches the ETag
+        return ResponseEntity.ok()
+                .eTag(StudentETags.ofPage(page.getContent(), page.getNextCursor()))
+                .body(page); // Returns 200 OK
+    }
+
+    /**
+     * ---------------------- SEARCH STUDENTS ----------------------
+     * Endpoint: GET /students/search?branch=CSE&minPct=60&maxPct=90&sort=-percentage&size=20
+     * Purpose: Filter students on the server instead of shipping the whole table.
+     * Every parameter is optional.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<StudentResponseDTO>> searchStudents(
+            @RequestParam(required = false) String branch,
+            @RequestParam(required = false) Float minPct,
+            @RequestParam(required = false) Float maxPct,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) Integer size) {
+        logger.info("GET /students/search - Request received (branch: {}, minPct: {}, maxPct: {})", branch, minPct, maxPct);
+
+        List<StudentResponseDTO> students = studentService.searchStudents(branch, minPct, maxPct, sort, size);
 
-        logger.info("GET /students - Returning {} students", students.size());
+        logger.info("GET /students/search - Returning {} students", students.size());
         return ResponseEntity.ok(students); // Returns 200 OK
     }
 
+    /**
+     * ---------------------- NAME SUGGESTIONS ----------------------
+     * Endpoint: GET /students/suggest?q=rav&limit=10
+     * Purpose: Type-ahead on student names, answered from the in-memory
+     * StudentNameIndex (no database query).
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<List<StudentSuggestionDTO>> suggestStudents(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer limit) {
+        logger.debug("GET /students/suggest - q: {}", q);
+
+        int max = limit == null ? StudentNameIndex.DEFAULT_LIMIT : Math.max(1, Math.min(limit, StudentNameIndex.MAX_LIMIT));
+        List<StudentSuggestionDTO> suggestions = studentNameIndex.suggest(q, max);
+
+        return ResponseEntity.ok(suggestions); // Returns 200 OK
+    }
+
+    /**
+     * ---------------------- BRANCH STATISTICS ----------------------
+     * Endpoint: GET /students/stats            → every branch plus an "ALL" row
+     *           GET /students/stats?branch=CSE → just that branch (empty if unknown)
+     * Purpose: Live count, mean, min/max and p50/p90/p99 of percentage,
+     * served from memory by BranchStatistics (no database query).
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<List<BranchStatsDTO>> getStudentStats(@RequestParam(required = false) String branch) {
+        logger.info("GET /students/stats - Request received (branch: {})", branch);
+
+        List<BranchStatsDTO> stats;
+        if (branch == null || branch.isBlank()) {
+            stats = branchStatistics.snapshot();
+        } else {
+            BranchStatsDTO single = branchStatistics.forBranch(branch);
+            stats = single == null ? List.of() : List.of(single);
+        }
+
+        return ResponseEntity.ok(stats); // Returns 200 OK
+    }
+
+    /**
+     * ---------------------- TOP-N LEADERBOARD ----------------------
+     * Endpoint: GET /students/top?n=10&branch=CSE (branch optional)
+     * Purpose: Highest percentages first, served from the in-memory
+     * PercentageLeaderboard (no database query).
+     */
+    @GetMapping("/top")
+    public ResponseEntity<List<LeaderboardEntryDTO>> getTopStudents(
+            @RequestParam(required = false) Integer n,
+            @RequestParam(required = false) String branch) {
+        logger.info("GET /students/top - Request received (n: {}, branch: {})", n, branch);
+
+        int count = n == null ? PercentageLeaderboard.DEFAULT_TOP : Math.max(1, Math.min(n, PercentageLeaderboard.MAX_TOP));
+        List<LeaderboardEntryDTO> top = percentageLeaderboard.top(count, branch);
+
+        return ResponseEntity.ok(top); // Returns 200 OK
+    }
+
+    /**
+     * ---------------------- STUDENT RANK ----------------------
+     * Endpoint: GET /students/{id}/rank
+     * Purpose: A student's rank overall and within their branch.
+     */
+    @GetMapping("/{id}/rank")
+    public ResponseEntity<StudentRankDTO> getStudentRank(@PathVariable Long id) {
+        logger.info("GET /students/{}/rank - Request received", id);
+
+        StudentRankDTO rank = percentageLeaderboard.rankOf(id);
+        if (rank == null) {
+            throw new StudentNotFoundException("Student not found with id: " + id);
+        }
+
+        return ResponseEntity.ok(rank); // Returns 200 OK
+    }
+
+    /**
+     * ---------------------- DELTA SYNC ----------------------
+     * Endpoint: GET /students/changes?since=0&size=500
+     * Purpose: Offline clients download the full list once (since=0), then only
+     * what changed: UPSERT entries carry the student's current state, DELETE
+     * entries just the id. Send the returned 'watermark' as 'since' next time;
+     * while 'hasMore' is true, call again straight away.
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<StudentChangesResponseDTO> getStudentChanges(
+            @RequestParam(required = false) Long since,
+            @RequestParam(required = false) Integer size) {
+        logger.info("GET /students/changes - Request received (since: {}, size: {})", since, size);
+
+        StudentChangesResponseDTO changes = studentSyncService.getChanges(since, size);
+
+        logger.info("GET /students/changes - Returning {} changes (watermark {})",
+                changes.getChanges().size(), changes.getWatermark());
+        return ResponseEntity.ok(changes); // Returns 200 OK
+    }
+
+    /**
+     * ---------------------- CHANGE FEED (SERVER-SENT EVENTS) ----------------------
+     * Endpoint: GET /students/feed  (Accept: text/event-stream)
+     * Purpose: Push every student create/update/delete and resume link as it
+     * happens, instead of clients polling GET /students.
+     * Event names: STUDENT_CREATED, STUDENT_UPDATED, STUDENT_DELETED, RESUME_LINKED,
+     * and "resync" when this client fell too far behind and changes were dropped —
+     * reload the list when you see it.
+     */
+    @GetMapping(value = "/feed", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges() {
+        logger.info("GET /students/feed - Subscriber connected");
+        return changeFeedBroadcaster.subscribe();
+    }
+
+    /**
+     * ---------------------- EXPORT ALL STUDENTS ----------------------
+     * Endpoint: GET /students/export?format=ndjson|csv
+     * Purpose: Stream the full student table for nightly pulls.
+     * Rows are written to the response as they are read from the database,
+     * so the response is never built up in memory.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportStudents(
+            @RequestParam(required = false, defaultValue = StudentExportService.FORMAT_NDJSON) String format) {
+        logger.info("GET /students/export - Request received (format: {})", format);
+
+        // Validate up-front: once streaming starts, the status code is already sent
+        String resolvedFormat = studentExportService.resolveFormat(format);
+        boolean csv = StudentExportService.FORMAT_CSV.equals(resolvedFormat);
+
+        StreamingResponseBody body = outputStream -> {
+            long rows = studentExportService.exportStudents(resolvedFormat, outputStream);
+            logger.info("GET /students/export - Streamed {} students", rows);
+        };
+
+        return ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv") : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"students." + resolvedFormat + "\"")
+                .body(body);
+    }
+
     /**
      * ---------------------- GET STUDENT BY ID ----------------------
      * Endpoint: GET /students/{id}
      * Purpose: Fetch one student record by ID.
+     * Caching: The ETag is "<id>-<version>". The lookup itself is served from the
+     * student cache, so a 304 Not Modified usually costs no database query.
      * Logging: Includes student ID for easier debugging.
      */
     @GetMapping("/{id}")
@@ -55,7 +283,9 @@ public class StudentController {
         StudentResponseDTO student = studentService.getStudentById(id);
 
         logger.info("GET /students/{} - Returning student: {}", id, student.getName());
-        return ResponseEntity.ok(student); // Returns 200 OK
+        return ResponseEntity.ok()
+                .eTag(StudentETags.of(student))
+                .body(student); // Returns 200 OK (or 304 if If-None-Match matches)
     }
 
     /**
@@ -75,24 +305,133 @@ public class StudentController {
         return new ResponseEntity<>(createdStudent, HttpStatus.CREATED); // Returns 201 Created
     }
 
+    /**
+     * ---------------------- CREATE STUDENTS IN BULK ----------------------
+     * Endpoint: POST /students/batch
+     * Purpose: Adds many students in one request using JDBC batch inserts.
+     * The response reports the outcome of every item plus timing figures
+     * (elapsedMs, insertsPerSecond).
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<StudentBatchResponseDTO> createStudentsBatch(@RequestBody List<StudentRequestDTO> studentRequestDTOs) {
+        logger.info("POST /students/batch - Request to create {} students",
+                studentRequestDTOs == null ? 0 : studentRequestDTOs.size());
+
+        StudentBatchResponseDTO result = studentBatchService.createStudents(studentRequestDTOs);
+
+        logger.info("POST /students/batch - {} created, {} not created", result.getCreated(), result.getFailed());
+        return new ResponseEntity<>(result, HttpStatus.CREATED); // Returns 201 Created
+    }
+
+    /**
+     * ---------------------- IMPORT STUDENTS FROM CSV ----------------------
+     * Endpoint: POST /students/import (multipart, part name "file")
+     * CSV header: name,branch,percentage (any order; extra columns are ignored)
+     * Purpose: Onboard a whole college in one upload. The file is read as a
+     * stream and fed through a parallel validate → batched-insert pipeline,
+     * so memory use does not grow with the file size.
+     * The response lists every row that was not created, by CSV line number.
+     */
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<StudentImportResponseDTO> importStudents(@RequestParam("file") MultipartFile file) throws IOException {
+        logger.info("POST /students/import - Request received (file: {}, {} bytes)", file.getOriginalFilename(), file.getSize());
+
+        StudentImportResponseDTO result;
+        try (InputStream input = file.getInputStream()) {
+            result = studentImportService.importStudents(input);
+        }
+
+        logger.info("POST /students/import - {} created, {} rejected, {} failed",
+                result.getCreated(), result.getRejected(), result.getFailed());
+        return new ResponseEntity<>(result, HttpStatus.CREATED); // Returns 201 Created
+    }
+
+    /**
+     * ---------------------- BULK UPDATE ----------------------
+     * Endpoint: POST /students/bulk/update
+     * Body: {"ids": [1, 2], "branch": "CSE", "minPct": 0, "maxPct": 100, "set": {"branch": "CSE-AI"}}
+     * Access: Only ADMIN.
+     * Purpose: Change many students with one UPDATE statement per chunk of 500.
+     * Selection by ids and/or filters (AND-ed); at least one is required.
+     * Each chunk commits on its own; if the request fails part-way, send it again.
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/bulk/update")
+    public ResponseEntity<StudentBulkResultDTO> bulkUpdateStudents(@RequestBody StudentBulkRequestDTO request) {
+        logger.info("POST /students/bulk/update - Request received");
+
+        StudentBulkResultDTO result = studentBulkService.bulkUpdate(request);
+
+        logger.info("POST /students/bulk/update - {} students updated", result.getAffected());
+        return ResponseEntity.ok(result); // Returns 200 OK
+    }
+
+    /**
+     * ---------------------- BULK DELETE ----------------------
+     * Endpoint: POST /students/bulk/delete
+     * Body: {"ids": [...]} and/or {"branch": "...", "minPct": ..., "maxPct": ...}
+     * Access: Only ADMIN.
+     * Purpose: Delete many students (and their resumes) with one DELETE statement
+     * per chunk of 500. Each chunk commits on its own; if the request fails
+     * part-way, send it again.
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/bulk/delete")
+    public ResponseEntity<StudentBulkResultDTO> bulkDeleteStudents(@RequestBody StudentBulkRequestDTO request) {
+        logger.info("POST /students/bulk/delete - Request received");
+
+        StudentBulkResultDTO result = studentBulkService.bulkDelete(request);
+
+        logger.info("POST /students/bulk/delete - {} students deleted", result.getAffected());
+        return ResponseEntity.ok(result); // Returns 200 OK
+    }
+
     /**
      * ---------------------- UPDATE STUDENT ----------------------
      * Endpoint: PUT /students/{id}
      * Purpose: Updates an existing student record.
+     * Concurrency: Send the ETag you read as If-Match; if the student changed
+     * in the meantime the update is refused with 412 Precondition Failed.
      * Logging: Captures which ID is being updated.
      */
     @PutMapping("/{id}")
     public ResponseEntity<StudentResponseDTO> updateStudent(
             @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @RequestBody StudentRequestDTO studentRequestDTO) {
 
         logger.info("PUT /students/{} - Request to update student", id);
 
         // Calls service layer to perform the update
-        StudentResponseDTO updatedStudent = studentService.updateStudent(id, studentRequestDTO);
+        StudentResponseDTO updatedStudent = studentService.updateStudent(id, studentRequestDTO, ifMatch);
 
         logger.info("PUT /students/{} - Student updated successfully", id);
-        return ResponseEntity.ok(updatedStudent); // Returns 200 OK
+        return ResponseEntity.ok()
+                .eTag(StudentETags.of(updatedStudent))
+                .body(updatedStudent); // Returns 200 OK
+    }
+
+    /**
+     * ---------------------- PATCH STUDENT ----------------------
+     * Endpoint: PATCH /students/{id}
+     * Body: JSON Merge Patch, e.g. {"branch": "ECE"} — only the given fields change.
+     * Purpose: Partial update with a single targeted UPDATE statement.
+     * Concurrency: Honors If-Match just like PUT.
+     */
+    @PatchMapping(value = "/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<StudentResponseDTO> patchStudent(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody Map<String, Object> patch) {
+
+        logger.info("PATCH /students/{} - Request to patch fields {}", id, patch.keySet());
+
+        StudentResponseDTO patchedStudent = studentService.patchStudent(id, patch, ifMatch);
+
+        logger.info("PATCH /students/{} - Student patched successfully", id);
+        return ResponseEntity.ok()
+                .eTag(StudentETags.of(patchedStudent))
+                .body(patchedStudent); // Returns 200 OK
     }
 
     /**
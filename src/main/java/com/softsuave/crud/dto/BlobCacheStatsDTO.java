@@ -0,0 +1,19 @@
+package com.softsuave.crud.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Counters of the off-heap resume file cache, for GET /resumes/cache/stats
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BlobCacheStatsDTO {
+    private long hits;
+    private long misses;
+    private double hitRatio;
+    private long evictions;
+    private long entries;
+    private long bytesHeld;
+    private long maxBytes;
+}
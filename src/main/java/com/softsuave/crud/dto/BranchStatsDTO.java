@@ -0,0 +1,17 @@
+package com.softsuave.crud.dto;
+
+import lombok.Data;
+
+// Live statistics of Student.percentage for one branch (or "ALL" for every branch).
+// min/max/percentiles have a resolution of 0.01.
+@Data
+public class BranchStatsDTO {
+    private String branch;
+    private long count;
+    private double mean;
+    private double min;
+    private double max;
+    private double p50;
+    private double p90;
+    private double p99;
+}
@@ -0,0 +1,25 @@
+package com.softsuave.crud.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One message on the GET /students/feed Server-Sent Events stream.
+// 'type' is STUDENT_CREATED, STUDENT_UPDATED, STUDENT_DELETED or RESUME_LINKED;
+// 'student' is the new state (null for deletes and resume links).
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ChangeFeedEventDTO {
+    public static final String STUDENT_CREATED = "STUDENT_CREATED";
+    public static final String STUDENT_UPDATED = "STUDENT_UPDATED";
+    public static final String STUDENT_DELETED = "STUDENT_DELETED";
+    public static final String RESUME_LINKED = "RESUME_LINKED";
+
+    private long sequence;
+    private String type;
+    private Long studentId;
+    private StudentResponseDTO student;
+    private Long resumeId;
+    private String resumeTitle;
+}
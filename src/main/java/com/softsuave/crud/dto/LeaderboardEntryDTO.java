@@ -0,0 +1,17 @@
+package com.softsuave.crud.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One row of GET /students/top. 'rank' starts at 1 (highest percentage).
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class LeaderboardEntryDTO {
+    private int rank;
+    private Long id;
+    private String name;
+    private String branch;
+    private float percentage;
+}
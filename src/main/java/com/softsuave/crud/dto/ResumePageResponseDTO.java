@@ -0,0 +1,18 @@
+package com.softsuave.crud.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// One page of resume metadata plus the cursor for the next page ('after');
+// nextCursor is null when there are no more rows.
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ResumePageResponseDTO {
+    private List<ResumeResponseDTO> content;
+    private int size;
+    private String nextCursor;
+}
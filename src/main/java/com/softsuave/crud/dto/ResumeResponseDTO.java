@@ -1,11 +1,22 @@
 package com.softsuave.crud.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+// Metadata only: the file itself is fetched from GET /resumes/{id}/download.
+// The all-args constructor is used by the JPQL projection in ResumeRepository,
+// so keep the field order in sync with RESUME_SUMMARY_SELECT.
 @Getter
 @Setter
+@NoArgsConstructor
+@AllArgsConstructor
 public class ResumeResponseDTO {
+    private Long id;
     private String resumeTitle;
-    private byte[] fileData;
+    private String fileName;
+    private String fileType;
+    private Long fileSize;
+    private String contentHash;
 }
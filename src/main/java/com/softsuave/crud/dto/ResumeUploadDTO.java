@@ -0,0 +1,18 @@
+package com.softsuave.crud.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+// State of a resumable upload: the client continues with PATCH at 'offset'
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ResumeUploadDTO {
+    private String id;
+    private long offset;
+    private long length;
+    private Instant expiresAt;
+}
@@ -0,0 +1,13 @@
+package com.softsuave.crud.dto;
+
+import lombok.Data;
+
+// Body of POST /resumes/uploads: what the finished file is for, and its total size
+@Data
+public class ResumeUploadRequestDTO {
+    private Long studentId;
+    private String title;
+    private String fileName;
+    private String fileType;
+    private Long length;
+}
@@ -0,0 +1,17 @@
+package com.softsuave.crud.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+// Summary of a POST /students/batch request, with timing so the batched path
+// can be compared against one-at-a-time POST /students/add calls.
+@Data
+public class StudentBatchResponseDTO {
+    private int requested;
+    private int created;
+    private int failed;
+    private long elapsedMs;
+    private double insertsPerSecond;
+    private List<StudentBatchResultDTO> results;
+}
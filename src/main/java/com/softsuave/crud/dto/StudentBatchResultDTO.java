@@ -0,0 +1,21 @@
+package com.softsuave.crud.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Outcome of one item in a POST /students/batch request.
+// 'index' is the item's position in the request array.
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class StudentBatchResultDTO {
+    public static final String CREATED = "CREATED";
+    public static final String REJECTED = "REJECTED";
+    public static final String FAILED = "FAILED";
+
+    private int index;
+    private String status;
+    private Long id;
+    private String error;
+}
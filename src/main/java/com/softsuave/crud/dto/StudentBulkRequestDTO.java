@@ -0,0 +1,19 @@
+package com.softsuave.crud.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+import java.util.Map;
+
+// Selects the students a bulk operation applies to — by id list, by filter,
+// or both (conditions are AND-ed). 'set' holds the new values for a bulk update.
+@Getter
+@Setter
+public class StudentBulkRequestDTO {
+    private List<Long> ids;
+    private String branch;
+    private Float minPct;
+    private Float maxPct;
+    private Map<String, Object> set;
+}
@@ -0,0 +1,14 @@
+package com.softsuave.crud.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Result of a bulk update/delete: how many rows the single statement touched
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class StudentBulkResultDTO {
+    private String operation;
+    private int affected;
+}
@@ -0,0 +1,26 @@
+package com.softsuave.crud.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One entry of GET /students/changes: either the student's current state
+// (UPSERT) or the fact that it was deleted (DELETE, 'student' is null).
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class StudentChangeDTO {
+    public static final String UPSERT = "UPSERT";
+    public static final String DELETE = "DELETE";
+
+    private String op;
+    private Long id;
+    private long changeSeq;
+    private StudentResponseDTO student;
+
+    // Used by the JPQL constructor expression in StudentRepository.findChangesBetween
+    public StudentChangeDTO(Long id, Long changeSeq, String name, String branch, float percentage,
+                            String resumeTitle, Long version) {
+        this(UPSERT, id, changeSeq, new StudentResponseDTO(id, name, branch, percentage, resumeTitle, version));
+    }
+}
@@ -0,0 +1,18 @@
+package com.softsuave.crud.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Response of GET /students/changes?since=... — send 'watermark' back as
+// 'since' next time. When 'hasMore' is true, call again right away.
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class StudentChangesResponseDTO {
+    private List<StudentChangeDTO> changes;
+    private long watermark;
+    private boolean hasMore;
+}
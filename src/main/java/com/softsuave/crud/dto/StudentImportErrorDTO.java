@@ -0,0 +1,16 @@
+package com.softsuave.crud.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One row of a POST /students/import file that was not created.
+// 'line' is the 1-based line number in the uploaded CSV (the header is line 1).
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class StudentImportErrorDTO {
+    private long line;
+    private String status;
+    private String error;
+}
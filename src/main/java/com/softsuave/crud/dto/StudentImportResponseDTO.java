@@ -0,0 +1,20 @@
+package com.softsuave.crud.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+// Summary of a POST /students/import request. Only the first
+// 'student.import.max-errors' errors are listed; 'errorsTruncated' says
+// whether more were dropped (the counts are always complete).
+@Data
+public class StudentImportResponseDTO {
+    private long rowsRead;
+    private long created;
+    private long rejected;
+    private long failed;
+    private long elapsedMs;
+    private double rowsPerSecond;
+    private boolean errorsTruncated;
+    private List<StudentImportErrorDTO> errors;
+}
@@ -0,0 +1,18 @@
+package com.softsuave.crud.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// One page of students plus the opaque cursor the client sends back as 'after'
+// to fetch the next page. nextCursor is null when there are no more rows.
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class StudentPageResponseDTO {
+    private List<StudentResponseDTO> content;
+    private int size;
+    private String nextCursor;
+}
@@ -0,0 +1,15 @@
+package com.softsuave.crud.dto;
+
+import lombok.Data;
+
+// Where one student stands, overall and inside their own branch (1 = top)
+@Data
+public class StudentRankDTO {
+    private Long id;
+    private String branch;
+    private float percentage;
+    private long overallRank;
+    private long overallCount;
+    private long branchRank;
+    private long branchCount;
+}
@@ -1,13 +1,21 @@
 package com.softsuave.crud.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 // A DTO (Data Transfer Object) to safely transfer data to/from the API
+// The all-args constructor is used by JPQL "SELECT new ..." projections.
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class StudentResponseDTO {
+    private Long id;
     private String name;
     private String branch;
     private float percentage;
     // We can expose the resume title, but maybe not the whole file path
     private String resumeTitle;
+    // Row version (Student.version) — the basis of the ETag for this student
+    private Long version;
 }
@@ -0,0 +1,14 @@
+package com.softsuave.crud.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One type-ahead suggestion returned by GET /students/suggest
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class StudentSuggestionDTO {
+    private Long id;
+    private String name;
+}
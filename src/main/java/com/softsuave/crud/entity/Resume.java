@@ -1,5 +1,6 @@
 package com.softsuave.crud.entity;
 
+import com.softsuave.crud.storage.ResumeBlobReleaseListener;
 import jakarta.persistence.*;
 import lombok.Data;
 
@@ -13,6 +14,8 @@ import lombok.Data;
  * 'resume_id' foreign key we defined in the 'Student' entity.
  */
 @Entity
+@EntityListeners(ResumeBlobReleaseListener.class)
+@Table(indexes = @Index(name = "idx_resume_content_hash", columnList = "content_hash"))
 @Data
 public class Resume {
 
@@ -37,10 +40,25 @@ public class Resume {
 
     private String filePath;
 
+    /**
+     * Memory Comment: The file bytes are NOT in this table any more.
+     *
+     * 'contentHash' is the SHA-256 of the file, which is also its key in the
+     * on-disk ResumeBlobStore. Identical uploads share one stored file; the
+     * resume_blob table counts how many resumes point at it.
+     * @EntityListeners releases that reference when a Resume is deleted.
+     */
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
 
-    @Lob
-    @Column(columnDefinition = "LONGBLOB") // Be explicit for MySQL
-    private byte[] fileData;
+    private Long fileSize;
 
+    /**
+     * Memory Comment: How the stored file is encoded: null for raw bytes, or
+     * "gzip" when the store kept a compressed copy because it paid off.
+     * fileSize and contentHash always describe the ORIGINAL bytes.
+     */
+    @Column(length = 16)
+    private String contentEncoding;
 
 }
@@ -0,0 +1,43 @@
+package com.softsuave.crud.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Memory Comment: Bookkeeping for one file in the content-addressed resume
+ * store (see ResumeBlobStore). The file itself lives on disk; this row only
+ * says how many Resume rows point at it.
+ *
+ * 'refCount' goes up when a Resume starts using the file and down when it
+ * stops. A file whose count has been 0 for a while is deleted by the sweeper.
+ */
+@Entity
+@Table(name = "resume_blob")
+@Data
+@NoArgsConstructor
+public class ResumeBlob {
+
+    // SHA-256 of the file contents, lower-case hex
+    @Id
+    @Column(length = 64)
+    private String hash;
+
+    @Column(nullable = false)
+    private long size;
+
+    // null = stored raw, "gzip" = stored as <hash>.gz
+    @Column(length = 16)
+    private String contentEncoding;
+
+    @Column(nullable = false)
+    private int refCount;
+
+    @Column(nullable = false)
+    private Instant lastUsedAt;
+}
@@ -0,0 +1,60 @@
+package com.softsuave.crud.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Memory Comment: One resumable (chunked) resume upload that has been
+ * created but not finalized yet — see ResumeUploadService.
+ *
+ * The bytes received so far sit in a temp file named after 'id'; this row
+ * remembers how many of them are confirmed ('uploadOffset'), how many are
+ * expected in total, and what to do with the file once it is complete.
+ * Kept in the database so an upload can be resumed after a restart.
+ */
+@Entity
+@Table(name = "resume_upload", indexes = {
+        @Index(name = "idx_resume_upload_expires_at", columnList = "expires_at")
+})
+@Data
+@NoArgsConstructor
+public class ResumeUpload {
+
+    // Random UUID: it is also the capability to write to this upload
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    // Only the user who created the upload can continue or finish it
+    @Column(nullable = false)
+    private String username;
+
+    @Column(nullable = false)
+    private Long studentId;
+
+    private String resumeTitle;
+
+    private String fileName;
+
+    // As declared by the client; the stored type is sniffed at finalization
+    private String fileType;
+
+    @Column(name = "upload_length", nullable = false)
+    private long uploadLength;
+
+    @Column(name = "upload_offset", nullable = false)
+    private long uploadOffset;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+}
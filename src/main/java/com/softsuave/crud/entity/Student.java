@@ -1,10 +1,13 @@
 package com.softsuave.crud.entity;
 
 import com.softsuave.crud.dto.ResumeRequestDTO;
+import com.softsuave.crud.sync.StudentChangeSeqListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.DynamicUpdate;
 
 /**
  * Memory Comment: This is an Entity class.
@@ -18,26 +21,57 @@ import lombok.NoArgsConstructor;
  * - @ToString (generates a useful toString method)
  * - @EqualsAndHashCode (generates equals and hashCode methods)
  *
+ * @DynamicUpdate makes Hibernate write only the columns that actually changed
+ * in an UPDATE, instead of every column of the row.
+ *
  * @AllArgsConstructor generates a constructor that takes all fields as arguments.
  * @NoArgsConstructor generates an empty constructor. Hibernate needs this to
  * create objects when it retrieves them from the database.
+ *
+ * @Table(indexes = ...) adds the composite indexes that keyset pagination
+ * seeks on: (branch, id) and (percentage, id). The primary key already
+ * covers sorting by id. (branch, percentage) turns GET /students/search
+ * "branch = X AND percentage BETWEEN a AND b" into a single index range scan.
+ * (change_seq) serves GET /students/changes?since=...
+ *
+ * @EntityListeners stamps changeSeq on every insert and update.
  */
 @Entity
+@DynamicUpdate
+@EntityListeners(StudentChangeSeqListener.class)
+@Table(indexes = {
+        @Index(name = "idx_student_branch_id", columnList = "branch, id"),
+        @Index(name = "idx_student_percentage_id", columnList = "percentage, id"),
+        @Index(name = "idx_student_branch_percentage", columnList = "branch, percentage"),
+        @Index(name = "idx_student_change_seq", columnList = "change_seq")
+})
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 public class Student {
 
+    // Memory: How many ids Hibernate reserves per round trip to the generator table.
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     /**
      * Memory Comment: This field is the Primary Key for our 'student' table.
      *
      * @Id marks this field as the primary key.
      * @GeneratedValue tells Hibernate how to generate the value for this ID.
-     * - strategy = GenerationType.AUTO: We let Hibernate decide the best
-     * strategy (like "auto-increment") based on our database (e.g., MySQL).
+     * - strategy = GenerationType.TABLE with a pooled @TableGenerator: Hibernate
+     * reserves a block of ID_ALLOCATION_SIZE ids from the 'id_generator' table
+     * at once and hands them out in memory. Because the id is known BEFORE the
+     * INSERT runs, Hibernate can group many INSERTs into one JDBC batch.
+     * (With IDENTITY it has to run every INSERT immediately to learn the id,
+     * which makes batching impossible.)
+     * See StudentIdGeneratorInitializer for how the generator is kept ahead of
+     * ids that were created by the old auto-increment column.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "student_id_gen")
+    @TableGenerator(name = "student_id_gen", table = "id_generator",
+            pkColumnName = "gen_name", valueColumnName = "next_val",
+            pkColumnValue = "student", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     // Memory: These are standard columns in the 'student' table.
@@ -59,14 +93,43 @@ public class Student {
      * - name = "resume_id": Create a column in the 'student' table named 'resume_id'.
      * - referencedColumnName = "id": This 'resume_id' column will store the value
      * from the 'id' column of the 'resume' table.
+     * - fetch = FetchType.LAZY: Loading a Student does NOT load its Resume.
+     * The resume row is only read when getResume() is actually used.
+     *
+     * @ToString.Exclude keeps Lombok's toString() (used in our log lines) from
+     * loading the lazy relations by accident.
      */
-    @OneToOne(cascade = CascadeType.ALL)
+    @OneToOne(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JoinColumn(name = "resume_id", referencedColumnName = "id")
+    @ToString.Exclude
     private Resume resume;
 
 
     @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", referencedColumnName = "id")
+    @ToString.Exclude
     private Users user;
 
+    /**
+     * Memory Comment: Optimistic-locking version.
+     *
+     * @Version makes Hibernate add "AND version = ?" to every UPDATE and bump
+     * the number on success. If someone else changed the row in between, the
+     * UPDATE matches nothing and Hibernate throws instead of silently
+     * overwriting their change. The same number is used to build ETags.
+     * The column default lets ddl-auto add it to an existing table.
+     */
+    @Version
+    @Column(columnDefinition = "bigint not null default 0")
+    private Long version;
+
+    /**
+     * Memory Comment: Position of this row's latest change in the global change
+     * stream (see ChangeSequence). Unlike 'version', which counts per row, this
+     * grows across the whole table, so "everything changed since N" is a single
+     * range scan on idx_student_change_seq.
+     */
+    @Column(name = "change_seq")
+    private Long changeSeq;
+
 }
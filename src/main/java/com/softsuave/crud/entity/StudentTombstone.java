@@ -0,0 +1,40 @@
+package com.softsuave.crud.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Memory Comment: A record that a student was deleted.
+ *
+ * The student row itself is gone, so GET /students/changes needs this to tell
+ * offline clients "remove id X". 'changeSeq' comes from the same counter as
+ * Student.changeSeq, so deletes and upserts interleave in one ordered stream.
+ * Keyed by studentId: ids are never reused, so one student has at most one tombstone.
+ */
+@Entity
+@Table(name = "student_tombstone", indexes = {
+        @Index(name = "idx_student_tombstone_change_seq", columnList = "change_seq")
+})
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class StudentTombstone {
+
+    @Id
+    @Column(name = "student_id")
+    private Long studentId;
+
+    @Column(name = "change_seq", nullable = false)
+    private Long changeSeq;
+
+    @Column(name = "deleted_at", nullable = false)
+    private Instant deletedAt;
+}
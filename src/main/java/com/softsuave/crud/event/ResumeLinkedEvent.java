@@ -0,0 +1,19 @@
+package com.softsuave.crud.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Memory Comment: Published by ResumeService after a resume has been saved
+ * and linked to a student (so the student's resumeTitle has changed).
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class ResumeLinkedEvent {
+
+    private final Long studentId;
+    private final Long resumeId;
+    private final String resumeTitle;
+}
@@ -0,0 +1,42 @@
+package com.softsuave.crud.event;
+
+import com.softsuave.crud.dto.StudentResponseDTO;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Memory Comment: Published by the student services after a student row has
+ * been written to the database.
+ *
+ * In-memory views of the student table (name index, statistics, ...) listen
+ * for this and update themselves, so StudentService does not need to know
+ * about any of them. They use @TransactionalEventListener(fallbackExecution = true):
+ * an event published inside a transaction is only seen once it has committed
+ * (and never if it rolls back); one published outside a transaction is seen at once.
+ *
+ * 'student' is the state AFTER the change; it is null for DELETED.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class StudentChangedEvent {
+
+    public enum Type { CREATED, UPDATED, DELETED }
+
+    private final Type type;
+    private final Long studentId;
+    private final StudentResponseDTO student;
+
+    public static StudentChangedEvent created(StudentResponseDTO student) {
+        return new StudentChangedEvent(Type.CREATED, student.getId(), student);
+    }
+
+    public static StudentChangedEvent updated(StudentResponseDTO student) {
+        return new StudentChangedEvent(Type.UPDATED, student.getId(), student);
+    }
+
+    public static StudentChangedEvent deleted(Long studentId) {
+        return new StudentChangedEvent(Type.DELETED, studentId, null);
+    }
+}
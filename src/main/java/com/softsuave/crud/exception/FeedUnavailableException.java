@@ -0,0 +1,16 @@
+package com.softsuave.crud.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when GET /students/feed already has as many subscribers as
+ * 'student.feed.max-subscribers' allows.
+ * Mapped to 503 SERVICE UNAVAILABLE; the client's EventSource retries later.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class FeedUnavailableException extends RuntimeException {
+    public FeedUnavailableException(String message) {
+        super(message);
+    }
+}
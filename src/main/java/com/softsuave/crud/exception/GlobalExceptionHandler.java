@@ -2,6 +2,7 @@ package com.softsuave.crud.exception;
 
 
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -22,4 +23,29 @@ public class GlobalExceptionHandler {
     public ResponseEntity<String> handleResumeException(StudentNotFoundException ex){
         return new ResponseEntity<>(ex.getMessage(),HttpStatus.NOT_FOUND);
     }
-}
\ No newline at end of file
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<String> handlePreconditionFailedException(PreconditionFailedException ex){
+        return new ResponseEntity<>(ex.getMessage(),HttpStatus.PRECONDITION_FAILED);
+    }
+    // Memory: @Version detected that someone else saved the row while we were updating it
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<String> handleOptimisticLockingFailure(ObjectOptimisticLockingFailureException ex){
+        return new ResponseEntity<>("The resource was modified concurrently; re-read it and try again",HttpStatus.PRECONDITION_FAILED);
+    }
+    @ExceptionHandler(InvalidRequestException.class)
+    public ResponseEntity<String> handleInvalidRequestException(InvalidRequestException ex){
+        return new ResponseEntity<>(ex.getMessage(),HttpStatus.BAD_REQUEST);
+    }
+    @ExceptionHandler(UploadConflictException.class)
+    public ResponseEntity<String> handleUploadConflictException(UploadConflictException ex){
+        return new ResponseEntity<>(ex.getMessage(),HttpStatus.CONFLICT);
+    }
+    @ExceptionHandler(UploadChecksumMismatchException.class)
+    public ResponseEntity<String> handleUploadChecksumMismatchException(UploadChecksumMismatchException ex){
+        return ResponseEntity.status(UploadChecksumMismatchException.STATUS).body(ex.getMessage());
+    }
+    @ExceptionHandler(FeedUnavailableException.class)
+    public ResponseEntity<String> handleFeedUnavailableException(FeedUnavailableException ex){
+        return new ResponseEntity<>(ex.getMessage(),HttpStatus.SERVICE_UNAVAILABLE);
+    }
+}
@@ -0,0 +1,16 @@
+package com.softsuave.crud.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a client sends a request parameter we cannot make sense of
+ * (for example a tampered pagination cursor or an unknown sort field).
+ * Mapped to 400 BAD REQUEST.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidRequestException extends RuntimeException {
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+}
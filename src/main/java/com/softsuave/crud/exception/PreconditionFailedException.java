@@ -0,0 +1,16 @@
+package com.softsuave.crud.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a conditional write (If-Match) was based on an outdated
+ * version of the resource. Mapped to 412 PRECONDITION FAILED so the client
+ * knows to re-read before trying again.
+ */
+@ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+public class PreconditionFailedException extends RuntimeException {
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
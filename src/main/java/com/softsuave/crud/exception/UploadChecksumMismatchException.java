@@ -0,0 +1,15 @@
+package com.softsuave.crud.exception;
+
+/**
+ * Thrown when a chunk's bytes do not match its Upload-Checksum header. The
+ * chunk is discarded (the offset does not move) so the client can resend it.
+ * Mapped to 460, the status the tus protocol uses for "Checksum Mismatch".
+ */
+public class UploadChecksumMismatchException extends RuntimeException {
+
+    public static final int STATUS = 460;
+
+    public UploadChecksumMismatchException(String message) {
+        super(message);
+    }
+}
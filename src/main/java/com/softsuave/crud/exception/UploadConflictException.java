@@ -0,0 +1,17 @@
+package com.softsuave.crud.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a resumable-upload request does not fit the upload's current
+ * state: the Upload-Offset is not where the upload stands, another chunk is
+ * being written right now, or finalization was asked for too early.
+ * Mapped to 409 CONFLICT; the client should HEAD the upload and carry on from there.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class UploadConflictException extends RuntimeException {
+    public UploadConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,323 @@
+package com.softsuave.crud.feed;
+
+import com.softsuave.crud.dto.ChangeFeedEventDTO;
+import com.softsuave.crud.event.ResumeLinkedEvent;
+import com.softsuave.crud.event.StudentChangedEvent;
+import com.softsuave.crud.exception.FeedUnavailableException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * ----------------------- CHANGE FEED BROADCASTER -----------------------
+ *
+ * Pushes student and resume changes to every GET /students/feed subscriber
+ * as Server-Sent Events, so clients no longer need to poll GET /students.
+ *
+ * How it works:
+ *   - Writers (StudentService, ResumeService, ...) publish events as usual.
+ *     Our listener only drops the change into each subscriber's buffer —
+ *     it never touches a socket, so a slow client can never stall a write.
+ *   - Each subscriber has its own bounded buffer, keyed by student:
+ *       coalesce: a newer change for a student replaces the pending one
+ *                 (CREATED followed by UPDATED stays CREATED, with the new state);
+ *       drop:     when the buffer is full the OLDEST change is dropped and the
+ *                 client is sent a "resync" event, telling it to reload.
+ *   - Sender threads drain the buffers and write to the sockets, at most one
+ *     per subscriber at a time. A write to a slow client blocks until the
+ *     container's write timeout, so senders are not shared from a small fixed
+ *     pool: a thread is only taken while a subscriber has something to send,
+ *     and one stuck client never holds up the others.
+ *   - Both are bounded: at most 'student.feed.max-subscribers' clients may
+ *     connect (more get 503), and the sender pool never grows past that.
+ *     With virtual threads enabled the senders are virtual threads, so a
+ *     blocked write does not hold a platform thread either.
+ *   - A client whose buffer overflows while a write to it is still blocked is
+ *     not keeping up at all: it is disconnected (its EventSource reconnects
+ *     and reloads) rather than kept around to be fed resync events.
+ *   - A periodic heartbeat comment detects clients that went away.
+ */
+@Component
+public class ChangeFeedBroadcaster {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeFeedBroadcaster.class);
+
+    public static final String RESYNC_EVENT = "resync";
+
+    @Value("${student.feed.buffer-size:256}")
+    private int bufferSize;
+
+    @Value("${student.feed.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicLong sequence = new AtomicLong();
+    private final ExecutorService senders;
+    private final ScheduledExecutorService heartbeat;
+
+    private final int maxSubscribers;
+
+    public ChangeFeedBroadcaster(@Value("${student.feed.heartbeat-seconds:15}") long heartbeatSeconds,
+                                 @Value("${student.feed.max-subscribers:500}") int maxSubscribers,
+                                 @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.maxSubscribers = maxSubscribers;
+        ThreadFactory threadFactory;
+        if (virtualThreads) {
+            threadFactory = new VirtualThreadTaskExecutor("change-feed-").getVirtualThreadFactory();
+        } else {
+            AtomicInteger threadNumber = new AtomicInteger();
+            threadFactory = runnable -> {
+                Thread thread = new Thread(runnable, "change-feed-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            };
+        }
+        // Grows with the number of subscribers that have output pending, never past one per
+        // allowed subscriber; idle threads exit after 60s
+        this.senders = new ThreadPoolExecutor(0, maxSubscribers, 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), threadFactory);
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "change-feed-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeat.scheduleAtFixedRate(this::sendHeartbeats, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Registers a new subscriber. The emitter is returned straight from the
+     * controller; Spring keeps the response open until it completes.
+     *
+     * @throws FeedUnavailableException when 'student.feed.max-subscribers' are already connected
+     */
+    public SseEmitter subscribe() {
+        if (subscribers.size() >= maxSubscribers) {
+            logger.warn("Change feed subscriber refused: {} already connected", subscribers.size());
+            throw new FeedUnavailableException("Too many change feed subscribers; try again later");
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(e -> unsubscribe(subscriber));
+        subscribers.add(subscriber);
+        logger.info("Change feed subscriber added ({} connected)", subscribers.size());
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentChanged(StudentChangedEvent event) {
+        String type = switch (event.getType()) {
+            case CREATED -> ChangeFeedEventDTO.STUDENT_CREATED;
+            case UPDATED -> ChangeFeedEventDTO.STUDENT_UPDATED;
+            case DELETED -> ChangeFeedEventDTO.STUDENT_DELETED;
+        };
+        publish("S" + event.getStudentId(), new ChangeFeedEventDTO(sequence.incrementAndGet(), type,
+                event.getStudentId(), event.getStudent(), null, null));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onResumeLinked(ResumeLinkedEvent event) {
+        publish("R" + event.getStudentId(), new ChangeFeedEventDTO(sequence.incrementAndGet(),
+                ChangeFeedEventDTO.RESUME_LINKED, event.getStudentId(), null, event.getResumeId(), event.getResumeTitle()));
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeat.shutdownNow();
+        senders.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+    }
+
+    // ---------------------- HELPER METHODS ----------------------
+
+    private void publish(String key, ChangeFeedEventDTO change) {
+        for (Subscriber subscriber : subscribers) {
+            boolean overflowed = subscriber.offer(key, change, bufferSize);
+            if (overflowed && subscriber.sending) {
+                // Still stuck on an earlier write: cut it loose. Its sender thread
+                // completes the emitter once that write returns or times out.
+                subscriber.evicted = true;
+                unsubscribe(subscriber);
+                logger.info("Change feed subscriber disconnected: not keeping up");
+                continue;
+            }
+            schedule(subscriber);
+        }
+    }
+
+    private void sendHeartbeats() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.heartbeatDue = true;
+            schedule(subscriber);
+        }
+    }
+
+    // Hands the subscriber to a sender thread unless one is already on it
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.scheduled.compareAndSet(false, true)) {
+            try {
+                senders.execute(() -> flush(subscriber));
+            } catch (RuntimeException e) {
+                // Pool shut down, or still full of writes to clients that already left;
+                // the changes stay buffered and the next heartbeat tries again
+                subscriber.scheduled.set(false);
+            }
+        }
+    }
+
+    private void flush(Subscriber subscriber) {
+        try {
+            while (true) {
+                Subscriber.Batch batch = subscriber.drain();
+                if (batch.dropped() > 0) {
+                    send(subscriber, SseEmitter.event()
+                            .name(RESYNC_EVENT)
+                            .data(Map.of("dropped", batch.dropped()), MediaType.APPLICATION_JSON));
+                }
+                for (ChangeFeedEventDTO change : batch.changes()) {
+                    send(subscriber, SseEmitter.event()
+                            .id(String.valueOf(change.getSequence()))
+                            .name(change.getType())
+                            .data(change, MediaType.APPLICATION_JSON));
+                }
+                if (batch.isEmpty() && subscriber.heartbeatDue) {
+                    send(subscriber, SseEmitter.event().comment("heartbeat"));
+                }
+                subscriber.heartbeatDue = false;
+
+                subscriber.scheduled.set(false);
+                // A change may have arrived after drain() but before we cleared the flag
+                if (!subscriber.hasPending() || !subscriber.scheduled.compareAndSet(false, true)) {
+                    return;
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client went away, was evicted, or the emitter already completed
+            logger.debug("Change feed subscriber dropped: {}", e.getMessage());
+            unsubscribe(subscriber);
+            subscriber.emitter.completeWithError(e);
+        }
+    }
+
+    // One write; marks the subscriber busy while the socket may block
+    private void send(Subscriber subscriber, SseEmitter.SseEventBuilder event) throws IOException {
+        if (subscriber.evicted) {
+            throw new IllegalStateException("disconnected for not keeping up"); // ends the response below
+        }
+        subscriber.sending = true;
+        try {
+            subscriber.emitter.send(event);
+        } finally {
+            subscriber.sending = false;
+        }
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            logger.info("Change feed subscriber removed ({} connected)", subscribers.size());
+        }
+    }
+
+    /**
+     * One connected client and its bounded, coalescing buffer.
+     */
+    static final class Subscriber {
+        private final SseEmitter emitter;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LinkedHashMap<String, ChangeFeedEventDTO> pending = new LinkedHashMap<>();
+        private long dropped;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile boolean heartbeatDue;
+        private volatile boolean sending;
+        private volatile boolean evicted;
+
+        record Batch(List<ChangeFeedEventDTO> changes, long dropped) {
+            boolean isEmpty() {
+                return changes.isEmpty() && dropped == 0;
+            }
+        }
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        /**
+         * @return true if the buffer was full and the oldest change was dropped
+         */
+        boolean offer(String key, ChangeFeedEventDTO change, int capacity) {
+            lock.lock();
+            try {
+                ChangeFeedEventDTO previous = pending.remove(key);
+                if (previous != null && ChangeFeedEventDTO.STUDENT_CREATED.equals(previous.getType())
+                        && ChangeFeedEventDTO.STUDENT_UPDATED.equals(change.getType())) {
+                    change = new ChangeFeedEventDTO(change.getSequence(), ChangeFeedEventDTO.STUDENT_CREATED,
+                            change.getStudentId(), change.getStudent(), null, null);
+                }
+                pending.put(key, change); // re-inserted, so it moves to the end
+                if (pending.size() > capacity) {
+                    Iterator<ChangeFeedEventDTO> oldest = pending.values().iterator();
+                    oldest.next();
+                    oldest.remove();
+                    dropped++;
+                    return true;
+                }
+                return false;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        Batch drain() {
+            lock.lock();
+            try {
+                Batch batch = new Batch(new ArrayList<>(pending.values()), dropped);
+                pending.clear();
+                dropped = 0;
+                return batch;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        boolean hasPending() {
+            lock.lock();
+            try {
+                return !pending.isEmpty() || dropped > 0;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
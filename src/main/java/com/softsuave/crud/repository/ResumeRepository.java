@@ -1,10 +1,45 @@
 package com.softsuave.crud.repository;
 
+import com.softsuave.crud.dto.ResumeResponseDTO;
 import com.softsuave.crud.entity.Resume;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface ResumeRepository extends JpaRepository<Resume,Long> {
 
+    // ---------------------- READ PROJECTIONS ----------------------
+    // Memory: Listings only need the metadata columns, so select them straight
+    // into ResumeResponseDTO — no Resume entities, and the legacy file_data
+    // LONGBLOB (still present until the DBA drops it) is never read.
+    String RESUME_SUMMARY_SELECT = "SELECT new com.softsuave.crud.dto.ResumeResponseDTO(" +
+            "r.id, r.resumeTitle, r.fileName, r.fileType, r.fileSize, r.contentHash) FROM Resume r ";
+
+    @Query(RESUME_SUMMARY_SELECT + "WHERE r.id = :id")
+    Optional<ResumeResponseDTO> findSummaryById(@Param("id") Long id);
+
+    // Keyset pagination on the primary key, like StudentRepository; the Pageable is only a LIMIT
+    @Query(RESUME_SUMMARY_SELECT + "ORDER BY r.id ASC")
+    List<ResumeResponseDTO> findFirstPageOrderById(Pageable limit);
+
+    @Query(RESUME_SUMMARY_SELECT + "WHERE r.id > :afterId ORDER BY r.id ASC")
+    List<ResumeResponseDTO> findPageAfterId(@Param("afterId") Long afterId, Pageable limit);
+
+    // ---------------------- OWN RESUME ----------------------
+    // Memory: "Download my resume" goes from the logged-in user straight to the
+    // resume row in one query over the indexed student.user_id foreign key,
+    // instead of user -> student -> lazy resume (three round trips).
+    String OWN_RESUME_SELECT = "SELECT r FROM Student s JOIN s.resume r ";
+
+    @Query(OWN_RESUME_SELECT + "WHERE s.user.id = :userId")
+    Optional<Resume> findByStudentUserId(@Param("userId") Long userId);
+
+    @Query(OWN_RESUME_SELECT + "JOIN s.user u WHERE u.username = :username")
+    Optional<Resume> findByStudentUsername(@Param("username") String username);
 }
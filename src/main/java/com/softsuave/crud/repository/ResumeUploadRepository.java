@@ -0,0 +1,15 @@
+package com.softsuave.crud.repository;
+
+import com.softsuave.crud.entity.ResumeUpload;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface ResumeUploadRepository extends JpaRepository<ResumeUpload, String> {
+
+    // Range scan on idx_resume_upload_expires_at, for the expiry sweep
+    List<ResumeUpload> findByExpiresAtBefore(Instant cutoff);
+}
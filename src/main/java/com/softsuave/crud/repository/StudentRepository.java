@@ -1,12 +1,99 @@
 package com.softsuave.crud.repository;
 
+import com.softsuave.crud.dto.StudentChangeDTO;
+import com.softsuave.crud.dto.StudentResponseDTO;
 import com.softsuave.crud.entity.Student;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface StudentRepository extends JpaRepository<Student, Long> {
+public interface StudentRepository extends JpaRepository<Student, Long>, JpaSpecificationExecutor<Student>,
+        StudentRepositoryCustom {
     Optional<Student> findByUserId(Long id);
+
+    // ---------------------- READ PROJECTIONS ----------------------
+    // Memory: Listing screens only need name, branch, percentage and the resume
+    // title. Selecting straight into StudentResponseDTO means MySQL sends just
+    // those columns — the resume's LONGBLOB is never read, and Hibernate does not
+    // build (or dirty-check) any Student/Resume entities.
+    String SUMMARY_SELECT = "SELECT new com.softsuave.crud.dto.StudentResponseDTO(" +
+            "s.id, s.name, s.branch, s.percentage, r.resumeTitle, s.version) " +
+            "FROM Student s LEFT JOIN s.resume r ";
+
+    @Query(SUMMARY_SELECT + "WHERE s.id = :id")
+    Optional<StudentResponseDTO> findSummaryById(@Param("id") Long id);
+
+    @Query(SUMMARY_SELECT + "WHERE s.id IN :ids")
+    List<StudentResponseDTO> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // ---------------------- KEYSET (CURSOR) PAGINATION ----------------------
+    // Memory: Each query seeks past the last row the client has already seen
+    // instead of using OFFSET, so page 10,000 costs the same as page 1.
+    // The Pageable is only used for its LIMIT (always page 0), and returning a
+    // List (not Page) means Spring Data never runs a COUNT(*) query.
+    // Note: rows whose sort column is NULL are not reachable past the first page,
+    // so branch/percentage sorting assumes those columns are filled in.
+
+    @Query(SUMMARY_SELECT + "ORDER BY s.id ASC")
+    List<StudentResponseDTO> findFirstPageOrderById(Pageable limit);
+
+    @Query(SUMMARY_SELECT + "WHERE s.id > :afterId ORDER BY s.id ASC")
+    List<StudentResponseDTO> findPageAfterId(@Param("afterId") Long afterId, Pageable limit);
+
+    @Query(SUMMARY_SELECT + "ORDER BY s.branch ASC, s.id ASC")
+    List<StudentResponseDTO> findFirstPageOrderByBranch(Pageable limit);
+
+    @Query(SUMMARY_SELECT + "WHERE s.branch > :branch OR (s.branch = :branch AND s.id > :afterId) " +
+            "ORDER BY s.branch ASC, s.id ASC")
+    List<StudentResponseDTO> findPageAfterBranch(@Param("branch") String branch, @Param("afterId") Long afterId, Pageable limit);
+
+    @Query(SUMMARY_SELECT + "ORDER BY s.percentage ASC, s.id ASC")
+    List<StudentResponseDTO> findFirstPageOrderByPercentage(Pageable limit);
+
+    // Memory: percentage is a FLOAT column. Bound as a float, the driver sends the short
+    // text form ("75.3"), which MySQL reads as 75.3 while the column holds 75.30000305...,
+    // so boundary rows would repeat or be skipped. The float is widened to the double with
+    // exactly the same value and cast on the parameter side only, so the comparison is
+    // exact and the (percentage, id) index is still used.
+    @Query(SUMMARY_SELECT + "WHERE s.percentage > cast(:percentage as Double) " +
+            "OR (s.percentage = cast(:percentage as Double) AND s.id > :afterId) " +
+            "ORDER BY s.percentage ASC, s.id ASC")
+    List<StudentResponseDTO> findPageAfterPercentage(@Param("percentage") double percentage, @Param("afterId") Long afterId, Pageable limit);
+
+    // ---------------------- DELTA SYNC ----------------------
+    // Memory: Rows changed after 'since' (up to 'upTo'), oldest change first.
+    // A range scan on idx_student_change_seq; the Pageable is only a LIMIT.
+    @Query("SELECT new com.softsuave.crud.dto.StudentChangeDTO(" +
+            "s.id, s.changeSeq, s.name, s.branch, s.percentage, r.resumeTitle, s.version) " +
+            "FROM Student s LEFT JOIN s.resume r " +
+            "WHERE s.changeSeq > :since AND s.changeSeq <= :upTo ORDER BY s.changeSeq ASC")
+    List<StudentChangeDTO> findChangesBetween(@Param("since") long since, @Param("upTo") long upTo, Pageable limit);
+
+    // ---------------------- STREAMING FULL SCAN ----------------------
+    // Memory: A forward-only stream over every student, used by the nightly
+    // export and to warm up the in-memory views at startup.
+    // - It selects DTOs directly (constructor expression), so Hibernate never
+    //   creates managed entities: nothing piles up in the persistence context
+    //   and the resume's BLOB is never touched.
+    // - The fetch size makes the driver pull rows in chunks instead of
+    //   buffering the whole result set (MySQL needs useCursorFetch=true for this).
+    // - Must be called inside a transaction and closed after use.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(SUMMARY_SELECT + "ORDER BY s.id ASC")
+    Stream<StudentResponseDTO> streamAllSummaries();
 }
@@ -0,0 +1,22 @@
+package com.softsuave.crud.repository;
+
+import java.util.Map;
+
+/**
+ * Memory Comment: Hand-written repository methods that Spring Data cannot
+ * derive for us. StudentRepository extends this interface, and Spring Data
+ * plugs in StudentRepositoryCustomImpl for these methods.
+ */
+public interface StudentRepositoryCustom {
+
+    /**
+     * Updates only the given columns of one student with a single
+     * "UPDATE ... SET <changed columns> WHERE id = ?" — no SELECT first.
+     * The version is always bumped.
+     *
+     * @param changes         column name → new value (name, branch, percentage only)
+     * @param expectedVersion if not null, the update only applies at this version
+     * @return number of rows updated (0 if not found or the version did not match)
+     */
+    int updateColumns(Long id, Map<String, Object> changes, Long expectedVersion);
+}
@@ -0,0 +1,57 @@
+package com.softsuave.crud.repository;
+
+import com.softsuave.crud.sync.ChangeSequence;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Implementation of StudentRepositoryCustom (Spring Data finds it by the "Impl" suffix).
+ */
+public class StudentRepositoryCustomImpl implements StudentRepositoryCustom {
+
+    // Memory: Column names are spliced into JPQL, so only these are ever allowed
+    public static final Set<String> UPDATABLE_COLUMNS = Set.of("name", "branch", "percentage");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Bulk JPQL skips entity listeners, so we stamp change_seq ourselves
+    @Autowired
+    private ChangeSequence changeSequence;
+
+    @Override
+    @Transactional
+    public int updateColumns(Long id, Map<String, Object> changes, Long expectedVersion) {
+        StringBuilder jpql = new StringBuilder("UPDATE Student s SET s.version = s.version + 1, s.changeSeq = :changeSeq");
+        for (String column : changes.keySet()) {
+            if (!UPDATABLE_COLUMNS.contains(column)) {
+                throw new IllegalArgumentException("Column cannot be updated: " + column);
+            }
+            jpql.append(", s.").append(column).append(" = :").append(column);
+        }
+        jpql.append(" WHERE s.id = :id");
+        if (expectedVersion != null) {
+            jpql.append(" AND s.version = :expectedVersion");
+        }
+
+        Query query = entityManager.createQuery(jpql.toString());
+        changes.forEach(query::setParameter);
+        query.setParameter("id", id);
+        query.setParameter("changeSeq", changeSequence.next());
+        if (expectedVersion != null) {
+            query.setParameter("expectedVersion", expectedVersion);
+        }
+        int updated = query.executeUpdate();
+
+        // A bulk UPDATE bypasses the persistence context, so drop anything it may
+        // hold for this row (same as @Modifying(clearAutomatically = true)).
+        entityManager.clear();
+        return updated;
+    }
+}
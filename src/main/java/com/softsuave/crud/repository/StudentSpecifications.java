@@ -0,0 +1,44 @@
+package com.softsuave.crud.repository;
+
+import com.softsuave.crud.entity.Student;
+import jakarta.persistence.criteria.JoinType;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Memory Comment: Reusable filter building blocks for Student queries.
+ *
+ * Each method returns a Specification (one WHERE condition). The service
+ * combines only the ones the client actually asked for with .and(), so the
+ * SQL stays a simple range condition on the (branch, percentage) index.
+ */
+public final class StudentSpecifications {
+
+    private StudentSpecifications() {
+    }
+
+    public static Specification<Student> hasBranch(String branch) {
+        return (root, query, cb) -> cb.equal(root.get("branch"), branch);
+    }
+
+    public static Specification<Student> percentageAtLeast(float minPct) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("percentage"), minPct);
+    }
+
+    public static Specification<Student> percentageAtMost(float maxPct) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("percentage"), maxPct);
+    }
+
+    /**
+     * Loads the resume (metadata only — its file bytes are lazy) in the same
+     * query, so mapping each row to a DTO does not trigger one extra SELECT per
+     * student. Skipped for COUNT queries, where a fetch join is not allowed.
+     */
+    public static Specification<Student> fetchResume() {
+        return (root, query, cb) -> {
+            if (query != null && query.getResultType() != Long.class && query.getResultType() != long.class) {
+                root.fetch("resume", JoinType.LEFT);
+            }
+            return null; // no extra WHERE condition
+        };
+    }
+}
@@ -0,0 +1,18 @@
+package com.softsuave.crud.repository;
+
+import com.softsuave.crud.entity.StudentTombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface StudentTombstoneRepository extends JpaRepository<StudentTombstone, Long> {
+
+    // Range scan on idx_student_tombstone_change_seq; the Pageable is only a LIMIT
+    @Query("SELECT t FROM StudentTombstone t WHERE t.changeSeq > :since AND t.changeSeq <= :upTo ORDER BY t.changeSeq ASC")
+    List<StudentTombstone> findChangesBetween(@Param("since") long since, @Param("upTo") long upTo, Pageable limit);
+}
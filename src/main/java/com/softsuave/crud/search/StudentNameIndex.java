@@ -0,0 +1,385 @@
+package com.softsuave.crud.search;
+
+import com.softsuave.crud.dto.StudentResponseDTO;
+import com.softsuave.crud.dto.StudentSuggestionDTO;
+import com.softsuave.crud.event.StudentChangedEvent;
+import com.softsuave.crud.repository.StudentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * ----------------------- STUDENT NAME INDEX -----------------------
+ *
+ * An in-memory trigram index over Student.name for type-ahead suggestions.
+ * MySQL cannot use an index for LIKE '%x%', so this answers
+ * GET /students/suggest without touching the database.
+ *
+ * How it works:
+ *   - Every student gets a small internal "slot" number (an int).
+ *   - Each 3-character piece of a name ("trigram") maps to a sorted int[]
+ *     of the slots whose name contains it (a "posting list").
+ *   - A query of 3+ characters intersects the posting lists of its trigrams,
+ *     then double-checks the few remaining candidates.
+ *   - Queries of 1-2 characters use special word-start trigrams, so they
+ *     match names with a word beginning with those letters.
+ *
+ * The index is built once at startup and then kept up to date from
+ * StudentChangedEvent. A read/write lock lets many lookups run at once.
+ * Requests are already being served while the startup build streams the
+ * table, so events that arrive meanwhile are held back and applied after
+ * it: a row streamed before an update or delete can never win over it.
+ */
+@Component
+public class StudentNameIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(StudentNameIndex.class);
+
+    // Marks the start of a word inside word-start trigrams ("\u0001\u0001a", "\u0001ab")
+    private static final char WORD_START = '\u0001';
+
+    // Upper bound on verified matches we rank before trimming to the requested limit
+    private static final int MAX_CANDIDATES = 200;
+
+    public static final int DEFAULT_LIMIT = 10;
+    public static final int MAX_LIMIT = 50;
+
+    @Autowired
+    private StudentRepository studentRepo;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // trigram (three chars packed into a long) → sorted slots
+    private final Map<Long, IntPostingList> postings = new HashMap<>();
+
+    // student id → slot, and the reverse arrays indexed by slot
+    private final Map<Long, Integer> slotByStudentId = new HashMap<>();
+    private long[] studentIdBySlot = new long[1024];
+    private String[] nameBySlot = new String[1024];      // display name
+    private String[] normalizedBySlot = new String[1024];
+    private int nextSlot = 0;
+    private final IntPostingList freeSlots = new IntPostingList();
+
+    // Events held back while rebuild() streams the table; null when not rebuilding
+    private List<StudentChangedEvent> heldBack;
+
+    /**
+     * Loads every student name once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.nanoTime();
+        int[] count = {0};
+        lock.writeLock().lock();
+        try {
+            heldBack = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<StudentResponseDTO> students = studentRepo.streamAllSummaries()) {
+                    students.forEach(student -> {
+                        put(student.getId(), student.getName());
+                        count[0]++;
+                    });
+                }
+            });
+        } finally {
+            // Anything that changed while we streamed is newer than what we streamed
+            lock.writeLock().lock();
+            try {
+                List<StudentChangedEvent> events = heldBack;
+                heldBack = null;
+                events.forEach(this::apply);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        logger.info("Student name index built with {} names in {} ms", count[0], (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Keeps the index in step with StudentService writes.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentChanged(StudentChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (heldBack != null) {
+                heldBack.add(event);
+            } else {
+                apply(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void apply(StudentChangedEvent event) {
+        if (event.getType() == StudentChangedEvent.Type.DELETED) {
+            remove(event.getStudentId());
+        } else {
+            put(event.getStudentId(), event.getStudent().getName());
+        }
+    }
+
+    /**
+     * Adds a student, or replaces the indexed name if the student is already known.
+     */
+    public void put(Long studentId, String name) {
+        if (studentId == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            removeLocked(studentId);
+            String normalized = normalize(name);
+            if (normalized.isEmpty()) {
+                return;
+            }
+            int slot = allocateSlot();
+            studentIdBySlot[slot] = studentId;
+            nameBySlot[slot] = name;
+            normalizedBySlot[slot] = normalized;
+            slotByStudentId.put(studentId, slot);
+            for (long gram : trigramsOf(normalized)) {
+                postings.computeIfAbsent(gram, g -> new IntPostingList()).add(slot);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long studentId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(studentId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to 'limit' students whose name contains 'query'
+     * (or, for 1-2 character queries, has a word starting with it).
+     * Names that start with the query are ranked first.
+     */
+    public List<StudentSuggestionDTO> suggest(String query, int limit) {
+        String q = normalize(query);
+        if (q.isEmpty()) {
+            return List.of();
+        }
+        long[] grams = q.length() >= 3 ? substringTrigrams(q) : new long[]{wordStartTrigram(q)};
+
+        List<Integer> matches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            // Intersect, starting with the shortest list so the work stays small
+            IntPostingList[] lists = new IntPostingList[grams.length];
+            for (int i = 0; i < grams.length; i++) {
+                lists[i] = postings.get(grams[i]);
+                if (lists[i] == null) {
+                    return List.of();
+                }
+            }
+            Arrays.sort(lists, Comparator.comparingInt(IntPostingList::size));
+            int[] candidates = lists[0].toArray();
+            int candidateCount = candidates.length;
+            for (int i = 1; i < lists.length && candidateCount > 0; i++) {
+                candidateCount = lists[i].retainAll(candidates, candidateCount);
+            }
+
+            // Trigrams can match out of order, so confirm each candidate
+            for (int i = 0; i < candidateCount && matches.size() < MAX_CANDIDATES; i++) {
+                int slot = candidates[i];
+                if (matchesQuery(normalizedBySlot[slot], q)) {
+                    matches.add(slot);
+                }
+            }
+
+            return matches.stream()
+                    .sorted(Comparator.<Integer>comparingInt(slot -> normalizedBySlot[slot].startsWith(q) ? 0 : 1)
+                            .thenComparing(slot -> normalizedBySlot[slot]))
+                    .limit(limit)
+                    .map(slot -> new StudentSuggestionDTO(studentIdBySlot[slot], nameBySlot[slot]))
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotByStudentId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ---------------------- HELPER METHODS ----------------------
+
+    private void removeLocked(Long studentId) {
+        Integer slot = slotByStudentId.remove(studentId);
+        if (slot == null) {
+            return;
+        }
+        for (long gram : trigramsOf(normalizedBySlot[slot])) {
+            IntPostingList list = postings.get(gram);
+            if (list != null && list.remove(slot) && list.size() == 0) {
+                postings.remove(gram);
+            }
+        }
+        nameBySlot[slot] = null;
+        normalizedBySlot[slot] = null;
+        freeSlots.add(slot);
+    }
+
+    private int allocateSlot() {
+        if (freeSlots.size() > 0) {
+            return freeSlots.removeLast();
+        }
+        if (nextSlot == studentIdBySlot.length) {
+            int newLength = studentIdBySlot.length * 2;
+            studentIdBySlot = Arrays.copyOf(studentIdBySlot, newLength);
+            nameBySlot = Arrays.copyOf(nameBySlot, newLength);
+            normalizedBySlot = Arrays.copyOf(normalizedBySlot, newLength);
+        }
+        return nextSlot++;
+    }
+
+    private static boolean matchesQuery(String normalizedName, String q) {
+        if (q.length() >= 3) {
+            return normalizedName.contains(q);
+        }
+        // Short queries match the start of any word
+        return normalizedName.startsWith(q) || normalizedName.contains(" " + q);
+    }
+
+    // Lower-cases and collapses runs of whitespace, so "  Ravi   KUMAR" → "ravi kumar"
+    static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    // All trigrams stored for a name: every substring trigram plus the word-start ones
+    private static long[] trigramsOf(String normalized) {
+        long[] substring = substringTrigrams(normalized);
+        List<Long> grams = new ArrayList<>(substring.length + 8);
+        for (long gram : substring) {
+            grams.add(gram);
+        }
+        for (String word : normalized.split(" ")) {
+            if (!word.isEmpty()) {
+                grams.add(wordStartTrigram(word.substring(0, 1)));
+                if (word.length() > 1) {
+                    grams.add(wordStartTrigram(word.substring(0, 2)));
+                }
+            }
+        }
+        return grams.stream().mapToLong(Long::longValue).distinct().toArray();
+    }
+
+    private static long[] substringTrigrams(String s) {
+        if (s.length() < 3) {
+            return new long[0];
+        }
+        long[] grams = new long[s.length() - 2];
+        for (int i = 0; i + 3 <= s.length(); i++) {
+            grams[i] = pack(s.charAt(i), s.charAt(i + 1), s.charAt(i + 2));
+        }
+        return Arrays.stream(grams).distinct().toArray();
+    }
+
+    // "a" → (START, START, a), "ab" → (START, a, b)
+    private static long wordStartTrigram(String prefix) {
+        return prefix.length() == 1
+                ? pack(WORD_START, WORD_START, prefix.charAt(0))
+                : pack(WORD_START, prefix.charAt(0), prefix.charAt(1));
+    }
+
+    private static long pack(char a, char b, char c) {
+        return ((long) a << 32) | ((long) b << 16) | c;
+    }
+
+    /**
+     * A sorted, growable list of ints — a posting list without boxing.
+     * All access goes through the index's lock.
+     */
+    static final class IntPostingList {
+        private int[] values = new int[4];
+        private int size = 0;
+
+        int size() {
+            return size;
+        }
+
+        void add(int value) {
+            int pos = Arrays.binarySearch(values, 0, size, value);
+            if (pos >= 0) {
+                return;
+            }
+            pos = -pos - 1;
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            System.arraycopy(values, pos, values, pos + 1, size - pos);
+            values[pos] = value;
+            size++;
+        }
+
+        boolean remove(int value) {
+            int pos = Arrays.binarySearch(values, 0, size, value);
+            if (pos < 0) {
+                return false;
+            }
+            System.arraycopy(values, pos + 1, values, pos, size - pos - 1);
+            size--;
+            return true;
+        }
+
+        int removeLast() {
+            return values[--size];
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+
+        /**
+         * Keeps only the first 'count' entries of 'candidates' (sorted) that are
+         * also in this list, compacting them to the front. Returns the new count.
+         */
+        int retainAll(int[] candidates, int count) {
+            int kept = 0;
+            for (int i = 0; i < count; i++) {
+                if (Arrays.binarySearch(values, 0, size, candidates[i]) >= 0) {
+                    candidates[kept++] = candidates[i];
+                }
+            }
+            return kept;
+        }
+    }
+}
@@ -1,16 +1,26 @@
 package com.softsuave.crud.service;
 
+import com.softsuave.crud.configure.VirtualThreadConfigure;
 import com.softsuave.crud.exception.SignupException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+
 @Service
 public class EmailService {
     @Autowired
     private JavaMailSender javaMailSender;
 
+    // Only present in virtual-thread mode; see VirtualThreadConfigure for why
+    @Autowired(required = false)
+    @Qualifier(VirtualThreadConfigure.MAIL_SENDER_EXECUTOR)
+    private ExecutorService mailSenderExecutor;
+
     public void sendOtpEmail(String toEmail, String otp) {
         try {
             SimpleMailMessage message = new SimpleMailMessage();
@@ -20,9 +30,23 @@ public class EmailService {
             message.setText("Hello,\n\nYour OTP for registration is: " + otp +
                     "\n\nThis OTP will expire in 10 minutes.");
 
-            javaMailSender.send(message);
+            send(message);
         } catch (Exception e) {
             throw new SignupException("Error sending email: " + e.getMessage());
         }
     }
+
+    // Sends on a platform thread when one is configured, and still waits for the
+    // result so failures are reported to the caller exactly as before.
+    private void send(SimpleMailMessage message) throws Exception {
+        if (mailSenderExecutor == null) {
+            javaMailSender.send(message);
+            return;
+        }
+        try {
+            mailSenderExecutor.submit(() -> javaMailSender.send(message)).get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        }
+    }
 }
@@ -1,38 +1,40 @@
 package com.softsuave.crud.service;
 
+import com.softsuave.crud.configure.CacheConfigure;
+import com.softsuave.crud.dto.ResumePageResponseDTO;
 import com.softsuave.crud.dto.ResumeRequestDTO;
 import com.softsuave.crud.dto.ResumeResponseDTO;
 import com.softsuave.crud.entity.Resume;
 import com.softsuave.crud.entity.Student;
-import com.softsuave.crud.entity.Users;
+import com.softsuave.crud.event.ResumeLinkedEvent;
+import com.softsuave.crud.exception.InvalidRequestException;
 import com.softsuave.crud.exception.ResumeNotFoundException;
 import com.softsuave.crud.exception.StudentNotFoundException;
 import com.softsuave.crud.repository.ResumeRepository;
 import com.softsuave.crud.repository.StudentRepository;
 
-import com.softsuave.crud.repository.UserRepository;
-import org.apache.commons.io.FileUtils;
+import com.softsuave.crud.storage.ResumeBlobStore;
+import com.softsuave.crud.storage.StoredBlob;
+import com.softsuave.crud.utility.ContentTypeSniffer;
+import com.softsuave.crud.utility.StudentCursor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.net.MalformedURLException;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.List;
-import java.util.stream.Collectors;
-import java.io.File; // Memory: Use java.io.File for FileUtils
+import java.util.Optional;
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.file.Files;
 
 
 /**
@@ -51,6 +53,9 @@ public class ResumeService {
     // Logger for this service — logs will go to service.log (based on logback.xml)
     private static final Logger logger = LoggerFactory.getLogger(ResumeService.class);
 
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
     // Injects repository beans automatically using Spring's dependency injection
     @Autowired
     private ResumeRepository resumeRepo;
@@ -58,45 +63,90 @@ public class ResumeService {
     @Autowired
     private StudentRepository studentRepo;
 
+    // Where uploaded files are kept (content-addressed, deduplicated)
     @Autowired
-    private UserRepository userRepository;
-
+    private ResumeBlobStore resumeBlobStore;
 
+    @Autowired
+    private TransactionTemplate transactionTemplate;
 
-    @Value("${file.upload-dir}")
-    private String uploadDir;
+    // Tells the change feed (and any other listener) that a student got a new resume
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
     /**
-     * ---------------------- GET ALL RESUMES ----------------------
-     * Purpose: Retrieve a list of all resumes from the database.
+     * ---------------------- GET RESUMES (ONE PAGE) ----------------------
+     * Purpose: One page of resume METADATA (id, title, file name, type, size,
+     * hash), ordered by id. The files themselves are never read here; use
+     * GET /resumes/{id}/download for those.
+     *
+     * @param size  requested page size (clamped to 1..MAX_PAGE_SIZE)
+     * @param after cursor from the previous page's nextCursor, or null for the first page
      */
-    public List<ResumeResponseDTO> getAllResumes() {
-        logger.info("Fetching all resumes from database");
+    @Transactional(readOnly = true)
+    public ResumePageResponseDTO getResumesPage(Integer size, String after) {
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        logger.info("Fetching resumes page — size: {}, after: {}", pageSize, after);
+
+        // Same opaque cursor format as GET /students (id order only)
+        Long afterId = null;
+        if (after != null && !after.isBlank()) {
+            StudentCursor cursor = StudentCursor.decode(after);
+            if (!StudentCursor.SORT_ID.equals(cursor.getSort())) {
+                throw new InvalidRequestException("Cursor was not issued for the resume listing");
+            }
+            afterId = cursor.getLastId();
+        }
 
-        List<Resume> resumesList = resumeRepo.findAll();
-        logger.debug("Fetched {} resumes from repository", resumesList.size());
+        // One extra row tells us whether there is a next page
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+        List<ResumeResponseDTO> resumes = afterId == null
+                ? resumeRepo.findFirstPageOrderById(limit)
+                : resumeRepo.findPageAfterId(afterId, limit);
+        boolean hasNext = resumes.size() > pageSize;
+        if (hasNext) {
+            resumes = resumes.subList(0, pageSize);
+        }
+        logger.debug("Fetched {} resumes (hasNext: {})", resumes.size(), hasNext);
 
-        return resumesList.stream()
-                .map(this::mapResumetoDTO)
-                .collect(Collectors.toList());
+        String nextCursor = hasNext
+                ? new StudentCursor(StudentCursor.SORT_ID, null, resumes.get(resumes.size() - 1).getId()).encode()
+                : null;
+        return new ResumePageResponseDTO(resumes, resumes.size(), nextCursor);
     }
 
     /**
      * ---------------------- GET RESUME BY ID ----------------------
-     * Purpose: Retrieve a single resume by its ID.
+     * Purpose: Retrieve a single resume's metadata by its ID.
      * Throws: ResumeNotFoundException if no record is found.
      */
+    @Transactional(readOnly = true)
     public ResumeResponseDTO getResumeById(Long id) {
         logger.info("Fetching resume by ID: {}", id);
 
-        Resume resume = resumeRepo.findById(id)
+        ResumeResponseDTO resume = resumeRepo.findSummaryById(id)
                 .orElseThrow(() -> {
                     logger.error("Resume not found with ID: {}", id);
                     return new ResumeNotFoundException("Resume not found with ID: " + id);
                 });
 
         logger.info("Successfully fetched resume with ID: {}", id);
-        return mapResumetoDTO(resume);
+        return resume;
+    }
+
+    /**
+     * ---------------------- GET RESUME FILE BY ID ----------------------
+     * Purpose: The Resume behind GET /resumes/{id}/download.
+     * Throws: ResumeNotFoundException if there is no such resume or it has no file.
+     */
+    @Transactional(readOnly = true)
+    public Resume getResumeWithFile(Long id) {
+        Resume resume = resumeRepo.findById(id)
+                .orElseThrow(() -> new ResumeNotFoundException("Resume not found with ID: " + id));
+        if (resume.getContentHash() == null) {
+            throw new ResumeNotFoundException("No resume file data found for resume " + id);
+        }
+        return resume;
     }
 
     /**
@@ -106,31 +156,42 @@ public class ResumeService {
      *   1 Fetch the student
      *   2 Convert DTO → Entity
      *   3 Save resume
-     *   4 Link to student
+     *   4 Link to student and drop the previous resume (which gives back its
+     *     reference on a stored file, like the upload path)
      *   5 Return response DTO
+     * The student's cached DTO is evicted because its resume title changes.
      */
+    @CacheEvict(cacheNames = CacheConfigure.STUDENTS_CACHE, key = "#studentId")
     public ResumeResponseDTO addResume(Long studentId, ResumeRequestDTO resumeRequestDTO) {
         logger.info("Adding resume for student ID: {}", studentId);
 
-        // 1 Fetch the student
-        Student student = studentRepo.findById(studentId)
-                .orElseThrow(() -> {
-                    logger.error("Student not found with ID: {}", studentId);
-                    return new RuntimeException("Student not found with ID: " + studentId);
-                });
-
-        // 2 Convert DTO → Entity
-        Resume resume = convertDTOtoEntity(resumeRequestDTO);
-        logger.debug("Converted ResumeRequestDTO to Resume entity: {}", resume.getResumeTitle());
-
-        // 3 Save the resume
-        Resume savedResume = resumeRepo.save(resume);
-        logger.info("Resume '{}' saved successfully with ID: {}", savedResume.getResumeTitle(), savedResume.getId());
-
-        // 4 Link resume to student
-        student.setResume(savedResume);
-        studentRepo.save(student);
-        logger.info("Linked resume '{}' to student '{}'", savedResume.getResumeTitle(), student.getName());
+        Resume savedResume = transactionTemplate.execute(status -> {
+            // 1 Fetch the student
+            Student student = studentRepo.findById(studentId)
+                    .orElseThrow(() -> {
+                        logger.error("Student not found with ID: {}", studentId);
+                        return new RuntimeException("Student not found with ID: " + studentId);
+                    });
+            Resume previous = student.getResume();
+
+            // 2 Convert DTO → Entity
+            Resume resume = convertDTOtoEntity(resumeRequestDTO);
+            logger.debug("Converted ResumeRequestDTO to Resume entity: {}", resume.getResumeTitle());
+
+            // 3 Save the resume
+            Resume saved = resumeRepo.save(resume);
+            logger.info("Resume '{}' saved successfully with ID: {}", saved.getResumeTitle(), saved.getId());
+
+            // 4 Link resume to student
+            student.setResume(saved);
+            studentRepo.save(student);
+            if (previous != null) {
+                resumeRepo.delete(previous); // releases its blob reference, if it had a file
+            }
+            logger.info("Linked resume '{}' to student '{}'", saved.getResumeTitle(), student.getName());
+            return saved;
+        });
+        eventPublisher.publishEvent(new ResumeLinkedEvent(studentId, savedResume.getId(), savedResume.getResumeTitle()));
 
         // 5 Return DTO
         return mapResumetoDTO(savedResume);
@@ -143,10 +204,8 @@ public class ResumeService {
      * These are small helper methods — usually no need to log unless debugging.
      */
     private ResumeResponseDTO mapResumetoDTO(Resume resume) {
-        ResumeResponseDTO dto = new ResumeResponseDTO();
-        dto.setResumeTitle(resume.getResumeTitle());
-        dto.setFileData(resume.getFileData());
-        return dto;
+        return new ResumeResponseDTO(resume.getId(), resume.getResumeTitle(), resume.getFileName(),
+                resume.getFileType(), resume.getFileSize(), resume.getContentHash());
     }
 
     /**
@@ -160,65 +219,107 @@ public class ResumeService {
     }
 
 
+    /**
+     * ---------------------- UPLOAD RESUME FILE ----------------------
+     * Purpose: Store an uploaded file and make it the student's resume.
+     * Steps:
+     *   1 Check the student exists (before reading the upload)
+     *   2 Stream the file into the content-addressed ResumeBlobStore in one
+     *     pass (hash, size and type are worked out while it is copied; an
+     *     identical file already stored is reused, not written again)
+     *   3 In one transaction: save the Resume (hash + metadata only), take a
+     *     reference on the blob, link it to the student and drop the student's
+     *     previous resume (which gives back its reference)
+     * The upload is written before the transaction starts, so no database
+     * connection is held while the file is being received. If step 3 fails,
+     * the stored file is left with a reference count of 0 and the blob
+     * sweeper deletes it after the grace period.
+     */
+    // Evicts the cached student, whose resume title just changed
+    @CacheEvict(cacheNames = CacheConfigure.STUDENTS_CACHE, key = "#studentId")
     public Resume storeFileAndAddResume(Long studentId, String title, MultipartFile file) {
+        if (!studentRepo.existsById(studentId)) {
+            throw new StudentNotFoundException("Student not found with the id" + studentId);
+        }
+        String originalFileName = StringUtils.cleanPath(file.getOriginalFilename());
 
-        Student student=studentRepo.findById(studentId)
-                .orElseThrow(()->new StudentNotFoundException("Student not found with the id"+studentId));
-        String originalFileName= StringUtils.cleanPath(file.getOriginalFilename());
-        File targetFile = new File(uploadDir + "/resumes/" + originalFileName);
-
-        try {
-
-            Files.createDirectories(targetFile.getParentFile().toPath());
-
-
-            InputStream fileInputStream = file.getInputStream();
-            FileUtils.copyInputStreamToFile(fileInputStream,targetFile);
-
+        StoredBlob blob;
+        try (InputStream fileInputStream = file.getInputStream()) {
+            blob = resumeBlobStore.store(fileInputStream);
         } catch (IOException ex) {
             // This happens if the server doesn't have permission to write the file
             throw new RuntimeException("Could not store file " + originalFileName, ex);
         }
+        logger.info("Stored '{}' for student {} as blob {} ({} bytes, encoding {})",
+                originalFileName, studentId, blob.hash(), blob.size(), blob.contentEncoding());
 
-        Resume resume=new Resume();
-        resume.setResumeTitle(title);
-        resume.setFileName(originalFileName);
-        resume.setFileType(file.getContentType());
-
-        try {
-            resume.setFileData(file.getBytes());
-            resume.setFilePath(targetFile.getPath());
-        } catch (IOException ex) {
-            throw new RuntimeException(" Not able to read file data " + originalFileName, ex);
-        }
-
-        Resume savedResume=resumeRepo.save(resume);
-
-        student.setResume(savedResume);
-        studentRepo.save(student);
+        return linkStoredFile(studentId, title, originalFileName, file.getContentType(), blob);
+    }
 
+    /**
+     * Makes an already stored file the student's resume (step 3 above), in one
+     * transaction, and announces it. Shared by the single-request upload and
+     * the resumable upload's finalization.
+     */
+    @CacheEvict(cacheNames = CacheConfigure.STUDENTS_CACHE, key = "#studentId")
+    public Resume linkStoredFile(Long studentId, String title, String fileName, String declaredType, StoredBlob blob) {
+        Resume savedResume = transactionTemplate.execute(status -> {
+            Student student = studentRepo.findById(studentId)
+                    .orElseThrow(() -> new StudentNotFoundException("Student not found with the id" + studentId));
+            Resume previous = student.getResume();
+
+            Resume resume = new Resume();
+            resume.setResumeTitle(title);
+            resume.setFileName(fileName);
+            // Trust the bytes over the browser's Content-Type
+            resume.setFileType(ContentTypeSniffer.resolve(blob.sniffedType(), declaredType));
+            resume.setContentHash(blob.hash());
+            resume.setFileSize(blob.size());
+            resume.setContentEncoding(blob.contentEncoding());
+            Resume saved = resumeRepo.save(resume);
+            resumeBlobStore.acquire(blob.hash(), blob.size(), blob.contentEncoding());
+
+            student.setResume(saved);
+            studentRepo.save(student);
+            if (previous != null) {
+                resumeRepo.delete(previous); // releases its blob reference
+            }
+            return saved;
+        });
+
+        eventPublisher.publishEvent(new ResumeLinkedEvent(studentId, savedResume.getId(), savedResume.getResumeTitle()));
         return savedResume;
     }
 
 
-    public Resume getResumeForAuthenticatedUser(String username){
-        Users user=userRepository.findByUsername(username)
-                .orElseThrow(()->new UsernameNotFoundException("User not found"));
-
-        Student student=studentRepo.findByUserId(user.getId())
-                .orElseThrow(()->new StudentNotFoundException("User is not linked to any student"));
-
-        if(student==null){
-            throw new ResumeNotFoundException("No student profile is linked to this account");
-        }
+    /**
+     * The resume of the student linked to this user, in a single query. The
+     * JWT filter has already loaded the user, so the controller passes its id
+     * rather than looking the user up again.
+     */
+    @Transactional(readOnly = true)
+    public Resume getResumeForUser(Long userId){
+        return ownResume(resumeRepo.findByStudentUserId(userId));
+    }
 
-        Resume resume=student.getResume();
+    // Same single query, for principals that only carry a username
+    @Transactional(readOnly = true)
+    public Resume getResumeForAuthenticatedUser(String username){
+        return ownResume(resumeRepo.findByStudentUsername(username));
+    }
 
-        if (resume == null || resume.getFileData() == null) {
-            throw new ResumeNotFoundException("No resume file data found for this student.");
-        }
+    /**
+     * Where the stored file behind a resume lives, for streaming it back to the
+     * client. It is gzip-compressed when resume.getContentEncoding() says so.
+     */
+    public Path resumeFilePath(Resume resume) {
+        return resumeBlobStore.pathOf(resume.getContentHash(), resume.getContentEncoding());
+    }
 
-        return resume;
+    // No student linked, no resume, or a legacy row not yet moved into the blob store: all "nothing to download"
+    private static Resume ownResume(Optional<Resume> resume) {
+        return resume.filter(r -> r.getContentHash() != null)
+                .orElseThrow(() -> new ResumeNotFoundException("No resume file data found for this account."));
     }
 
 }
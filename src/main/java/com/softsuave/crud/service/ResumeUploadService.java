@@ -0,0 +1,377 @@
+package com.softsuave.crud.service;
+
+import com.softsuave.crud.dto.ResumeUploadDTO;
+import com.softsuave.crud.dto.ResumeUploadRequestDTO;
+import com.softsuave.crud.entity.Resume;
+import com.softsuave.crud.entity.ResumeUpload;
+import com.softsuave.crud.exception.InvalidRequestException;
+import com.softsuave.crud.exception.ResumeNotFoundException;
+import com.softsuave.crud.exception.StudentNotFoundException;
+import com.softsuave.crud.exception.UploadChecksumMismatchException;
+import com.softsuave.crud.exception.UploadConflictException;
+import com.softsuave.crud.repository.ResumeUploadRepository;
+import com.softsuave.crud.repository.StudentRepository;
+import com.softsuave.crud.storage.ResumeBlobStore;
+import com.softsuave.crud.storage.StoredBlob;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * ----------------------- RESUME UPLOAD SERVICE -----------------------
+ *
+ * Resumable, chunked resume uploads in the spirit of the tus protocol, for
+ * large files over flaky connections:
+ *
+ *   POST   /resumes/uploads              create (declares the total length)
+ *   PATCH  /resumes/uploads/{id}         append one chunk at Upload-Offset
+ *   HEAD   /resumes/uploads/{id}         how far did we get? (after a drop)
+ *   POST   /resumes/uploads/{id}/finish  store the file and link it to the student
+ *   DELETE /resumes/uploads/{id}         give up
+ *
+ * Chunks are appended to a temp file through a FileChannel at the confirmed
+ * offset; a chunk may carry "Upload-Checksum: sha256 <base64>" and is thrown
+ * away (offset unchanged) if it does not match. The offset only moves after
+ * the bytes are forced to disk, so what HEAD reports is always safe to resume
+ * from. Uploads not touched for 'resume.upload.expire-after' are deleted.
+ *
+ * Finalization hands the assembled file to ResumeBlobStore and then
+ * ResumeService.linkStoredFile — exactly what POST /resumes/upload does.
+ */
+@Service
+public class ResumeUploadService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResumeUploadService.class);
+
+    // Upload-Checksum algorithm names (tus uses the IANA names) → JCA names
+    private static final Map<String, String> CHECKSUM_ALGORITHMS = Map.of(
+            "sha1", "SHA-1", "sha256", "SHA-256", "md5", "MD5");
+
+    @Autowired
+    private ResumeUploadRepository uploadRepo;
+
+    @Autowired
+    private StudentRepository studentRepo;
+
+    @Autowired
+    private ResumeService resumeService;
+
+    @Autowired
+    private ResumeBlobStore resumeBlobStore;
+
+    @Value("${resume.upload.max-length:50MB}")
+    private DataSize maxLength;
+
+    @Value("${resume.upload.expire-after:PT24H}")
+    private Duration expireAfter;
+
+    private Path directory;
+
+    // Memory: One chunk at a time per upload. A second writer gets 409 instead
+    // of waiting, since two chunks for the same offset cannot both be right.
+    private final ConcurrentHashMap<String, ReentrantLock> locks = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() throws IOException {
+        // Next to the blob store's own temp files (cleaned up with them if the store is wiped)
+        directory = resumeBlobStore.tempDirectory().resolve("resumable");
+        Files.createDirectories(directory);
+    }
+
+    /**
+     * ---------------------- CREATE UPLOAD ----------------------
+     */
+    public ResumeUploadDTO create(String username, ResumeUploadRequestDTO request) {
+        if (request.getStudentId() == null) {
+            throw new InvalidRequestException("'studentId' is required");
+        }
+        if (request.getFileName() == null || request.getFileName().isBlank()) {
+            throw new InvalidRequestException("'fileName' is required");
+        }
+        if (request.getLength() == null || request.getLength() <= 0) {
+            throw new InvalidRequestException("'length' must be the size of the file in bytes");
+        }
+        if (request.getLength() > maxLength.toBytes()) {
+            throw new InvalidRequestException("Files larger than " + maxLength.toMegabytes() + "MB are not accepted");
+        }
+        if (!studentRepo.existsById(request.getStudentId())) {
+            throw new StudentNotFoundException("Student not found with the id" + request.getStudentId());
+        }
+
+        Instant now = Instant.now();
+        ResumeUpload upload = new ResumeUpload();
+        upload.setId(UUID.randomUUID().toString());
+        upload.setUsername(username);
+        upload.setStudentId(request.getStudentId());
+        upload.setResumeTitle(request.getTitle());
+        upload.setFileName(StringUtils.cleanPath(request.getFileName()));
+        upload.setFileType(request.getFileType());
+        upload.setUploadLength(request.getLength());
+        upload.setUploadOffset(0);
+        upload.setCreatedAt(now);
+        upload.setExpiresAt(now.plus(expireAfter));
+
+        try {
+            Files.createFile(pathOf(upload.getId()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create upload file", e);
+        }
+        uploadRepo.save(upload);
+        logger.info("Resumable upload {} created by {} for student {} ({} bytes)",
+                upload.getId(), username, upload.getStudentId(), upload.getUploadLength());
+        return toDTO(upload);
+    }
+
+    /**
+     * ---------------------- UPLOAD STATUS ----------------------
+     */
+    public ResumeUploadDTO status(String username, String id) {
+        return toDTO(find(username, id));
+    }
+
+    /**
+     * ---------------------- APPEND CHUNK ----------------------
+     * Writes the request body at 'offset', which must be where the upload
+     * currently stands.
+     *
+     * @param checksum optional "Upload-Checksum" header: "<algorithm> <base64 digest>"
+     */
+    public ResumeUploadDTO appendChunk(String username, String id, long offset, String checksum, InputStream body) {
+        ReentrantLock lock = lock(username, id, "Another chunk is being written to upload " + id);
+        try {
+            ResumeUpload upload = find(username, id);
+            if (offset != upload.getUploadOffset()) {
+                throw new UploadConflictException("Upload-Offset " + offset + " does not match the upload's offset "
+                        + upload.getUploadOffset());
+            }
+
+            MessageDigest digest = null;
+            byte[] expected = null;
+            if (checksum != null && !checksum.isBlank()) {
+                String[] parts = checksum.trim().split(" ", 2);
+                String algorithm = CHECKSUM_ALGORITHMS.get(parts[0].toLowerCase());
+                if (algorithm == null || parts.length != 2) {
+                    throw new InvalidRequestException("Unsupported Upload-Checksum; use sha1, sha256 or md5 with a Base64 digest");
+                }
+                try {
+                    expected = Base64.getDecoder().decode(parts[1].trim());
+                    digest = MessageDigest.getInstance(algorithm);
+                } catch (IllegalArgumentException | NoSuchAlgorithmException e) {
+                    throw new InvalidRequestException("Invalid Upload-Checksum: " + e.getMessage());
+                }
+            }
+
+            long remaining = upload.getUploadLength() - offset;
+            long written = 0;
+            ByteBuffer buffer = resumeBlobStore.borrowBuffer();
+            try (ReadableByteChannel in = Channels.newChannel(body);
+                 FileChannel out = FileChannel.open(pathOf(id), StandardOpenOption.WRITE)) {
+                // Anything past the confirmed offset is left over from a chunk that never completed
+                out.truncate(offset);
+                out.position(offset);
+                while (true) {
+                    int read;
+                    try {
+                        read = in.read(buffer);
+                    } catch (IOException e) {
+                        // The connection dropped mid-chunk. Without a checksum the bytes already
+                        // written are good, so keep them and let the client resume after them.
+                        // A failed write is not covered here: it goes straight to the outer catch.
+                        if (digest == null && written > 0) {
+                            out.force(false);
+                            advance(upload, offset + written);
+                            logger.info("Upload {} interrupted; kept {} bytes, now at offset {}", id, written, upload.getUploadOffset());
+                        }
+                        throw e;
+                    }
+                    if (read == -1) {
+                        break;
+                    }
+                    buffer.flip();
+                    if (written + buffer.remaining() > remaining) {
+                        throw new InvalidRequestException("Chunk goes past the declared upload length of "
+                                + upload.getUploadLength() + " bytes");
+                    }
+                    if (digest != null) {
+                        digest.update(buffer.duplicate());
+                    }
+                    // Only bytes the channel accepted count towards the offset
+                    while (buffer.hasRemaining()) {
+                        written += out.write(buffer);
+                    }
+                    buffer.clear();
+                }
+
+                if (digest != null && !MessageDigest.isEqual(expected, digest.digest())) {
+                    out.truncate(offset);
+                    throw new UploadChecksumMismatchException("Chunk at offset " + offset + " does not match its Upload-Checksum");
+                }
+                // The offset we confirm must survive a crash
+                out.force(false);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not write chunk of upload " + id, e);
+            } finally {
+                resumeBlobStore.returnBuffer(buffer);
+            }
+
+            advance(upload, offset + written);
+            logger.debug("Upload {} received {} bytes, now at {}/{}", id, written, upload.getUploadOffset(), upload.getUploadLength());
+            return toDTO(upload);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * ---------------------- FINISH UPLOAD ----------------------
+     * Stores the complete file and makes it the student's resume.
+     */
+    public Resume finish(String username, String id) {
+        ReentrantLock lock = lock(username, id, "A chunk is still being written to upload " + id);
+        try {
+            ResumeUpload upload = find(username, id);
+            if (upload.getUploadOffset() != upload.getUploadLength()) {
+                throw new UploadConflictException("Upload " + id + " is incomplete: " + upload.getUploadOffset()
+                        + " of " + upload.getUploadLength() + " bytes received");
+            }
+
+            StoredBlob blob;
+            try (FileChannel in = FileChannel.open(pathOf(id), StandardOpenOption.READ)) {
+                blob = resumeBlobStore.store(in);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not store upload " + id, e);
+            }
+            logger.info("Upload {} complete: stored as blob {} ({} bytes, encoding {})",
+                    id, blob.hash(), blob.size(), blob.contentEncoding());
+
+            Resume resume = resumeService.linkStoredFile(upload.getStudentId(), upload.getResumeTitle(),
+                    upload.getFileName(), upload.getFileType(), blob);
+            discard(upload);
+            return resume;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * ---------------------- CANCEL UPLOAD ----------------------
+     */
+    public void cancel(String username, String id) {
+        ReentrantLock lock = lock(username, id, "A chunk is still being written to upload " + id);
+        try {
+            discard(find(username, id));
+            logger.info("Upload {} cancelled by {}", id, username);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Deletes uploads nobody has touched for 'resume.upload.expire-after'.
+     */
+    @Scheduled(fixedDelayString = "${resume.upload.cleanup-interval-ms:900000}",
+            initialDelayString = "${resume.upload.cleanup-interval-ms:900000}")
+    public void expireUploads() {
+        List<ResumeUpload> expired = uploadRepo.findByExpiresAtBefore(Instant.now());
+        int removed = 0;
+        for (ResumeUpload upload : expired) {
+            ReentrantLock lock = lockFor(upload.getId());
+            if (!lock.tryLock()) {
+                continue; // a chunk is arriving right now, so it is not abandoned
+            }
+            try {
+                discard(upload);
+                removed++;
+            } finally {
+                lock.unlock();
+            }
+        }
+        if (removed > 0) {
+            logger.info("Expired {} abandoned resumable uploads", removed);
+        }
+    }
+
+    // ---------------------- HELPER METHODS ----------------------
+
+    // Someone else's upload, a made-up id and an expired one all look the same: not found
+    private ResumeUpload find(String username, String id) {
+        return uploadRepo.findById(id)
+                .filter(upload -> upload.getUsername().equals(username))
+                .filter(upload -> upload.getExpiresAt().isAfter(Instant.now()))
+                .orElseThrow(() -> new ResumeNotFoundException("Upload not found: " + id));
+    }
+
+    // Every chunk pushes the expiry out again: only idle uploads expire
+    private void advance(ResumeUpload upload, long newOffset) {
+        upload.setUploadOffset(newOffset);
+        upload.setExpiresAt(Instant.now().plus(expireAfter));
+        uploadRepo.save(upload);
+    }
+
+    private void discard(ResumeUpload upload) {
+        uploadRepo.delete(upload);
+        try {
+            Files.deleteIfExists(pathOf(upload.getId()));
+        } catch (IOException e) {
+            logger.warn("Could not delete the file of upload {}", upload.getId(), e);
+        }
+        locks.remove(upload.getId());
+    }
+
+    // Only known uploads get a lock, so made-up ids cannot fill the map
+    private ReentrantLock lock(String username, String id, String busyMessage) {
+        find(username, id);
+        ReentrantLock lock = lockFor(id);
+        if (!lock.tryLock()) {
+            throw new UploadConflictException(busyMessage);
+        }
+        return lock;
+    }
+
+    private ReentrantLock lockFor(String id) {
+        return locks.computeIfAbsent(id, key -> new ReentrantLock());
+    }
+
+    // The id comes from the URL: only ever accept a canonical UUID as a file name
+    private Path pathOf(String id) {
+        try {
+            if (!UUID.fromString(id).toString().equals(id)) {
+                throw new ResumeNotFoundException("Upload not found: " + id);
+            }
+        } catch (IllegalArgumentException e) {
+            throw new ResumeNotFoundException("Upload not found: " + id);
+        }
+        return directory.resolve(id + ".part");
+    }
+
+    private static ResumeUploadDTO toDTO(ResumeUpload upload) {
+        return new ResumeUploadDTO(upload.getId(), upload.getUploadOffset(), upload.getUploadLength(), upload.getExpiresAt());
+    }
+}
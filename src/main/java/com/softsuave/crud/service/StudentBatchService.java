@@ -0,0 +1,185 @@
+package com.softsuave.crud.service;
+
+import com.softsuave.crud.dto.StudentBatchResponseDTO;
+import com.softsuave.crud.dto.StudentBatchResultDTO;
+import com.softsuave.crud.dto.StudentRequestDTO;
+import com.softsuave.crud.dto.StudentResponseDTO;
+import com.softsuave.crud.entity.Student;
+import com.softsuave.crud.event.StudentChangedEvent;
+import com.softsuave.crud.exception.InvalidRequestException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ----------------------- STUDENT BATCH SERVICE -----------------------
+ *
+ * Creates many students in one call using JDBC batching.
+ *
+ * How it works:
+ *   1 Validate every item up-front (bad items are REJECTED, never sent to the DB)
+ *   2 Persist the valid items in chunks of 'student.batch.size'
+ *   3 Each chunk is its own transaction: persist → flush (one JDBC batch) → clear
+ *
+ * Clearing the persistence context after each chunk keeps memory flat no
+ * matter how many items are sent. A failing chunk only fails its own items.
+ */
+@Service
+public class StudentBatchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StudentBatchService.class);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // Memory: Should match spring.jpa.properties.hibernate.jdbc.batch_size
+    // so that one chunk is exactly one JDBC batch.
+    @Value("${student.batch.size:50}")
+    private int batchSize;
+
+    @Value("${student.batch.max-items:10000}")
+    private int maxItems;
+
+    public StudentBatchResponseDTO createStudents(List<StudentRequestDTO> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new InvalidRequestException("Batch must contain at least one student");
+        }
+        if (requests.size() > maxItems) {
+            throw new InvalidRequestException("Batch may contain at most " + maxItems + " students");
+        }
+        logger.info("createStudents() called with {} items (chunk size {})", requests.size(), batchSize);
+        long start = System.nanoTime();
+
+        // 1 Validate everything before touching the database
+        StudentBatchResultDTO[] results = new StudentBatchResultDTO[requests.size()];
+        List<Integer> valid = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            String error = validate(requests.get(i));
+            if (error == null) {
+                valid.add(i);
+            } else {
+                results[i] = new StudentBatchResultDTO(i, StudentBatchResultDTO.REJECTED, null, error);
+            }
+        }
+
+        // 2 + 3 Persist the valid items chunk by chunk
+        int created = 0;
+        for (int from = 0; from < valid.size(); from += batchSize) {
+            List<Integer> chunk = valid.subList(from, Math.min(from + batchSize, valid.size()));
+            created += persistChunk(requests, chunk, results);
+        }
+
+        long elapsedMs = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        StudentBatchResponseDTO response = new StudentBatchResponseDTO();
+        response.setRequested(requests.size());
+        response.setCreated(created);
+        response.setFailed(requests.size() - created);
+        response.setElapsedMs(elapsedMs);
+        response.setInsertsPerSecond(created * 1000.0 / elapsedMs);
+        response.setResults(List.of(results));
+
+        logger.info("Batch finished — {} created, {} not created in {} ms ({} inserts/sec)",
+                created, requests.size() - created, elapsedMs, Math.round(response.getInsertsPerSecond()));
+        return response;
+    }
+
+    // Helper method to save one chunk in its own transaction; returns how many were created
+    private int persistChunk(List<StudentRequestDTO> requests, List<Integer> chunk, StudentBatchResultDTO[] results) {
+        List<StudentRequestDTO> items = new ArrayList<>(chunk.size());
+        for (Integer index : chunk) {
+            items.add(requests.get(index));
+        }
+        List<Long> ids;
+        try {
+            ids = insertChunk(items);
+        } catch (RuntimeException e) {
+            logger.error("Batch chunk of {} students failed starting at item {}", chunk.size(), chunk.get(0), e);
+            for (Integer index : chunk) {
+                results[index] = new StudentBatchResultDTO(index, StudentBatchResultDTO.FAILED, null, e.getMessage());
+            }
+            return 0;
+        }
+
+        for (int i = 0; i < chunk.size(); i++) {
+            int index = chunk.get(i);
+            results[index] = new StudentBatchResultDTO(index, StudentBatchResultDTO.CREATED, ids.get(i), null);
+        }
+        return chunk.size();
+    }
+
+    /**
+     * Inserts already-validated students in ONE transaction (one JDBC batch when
+     * the list is no longer than 'student.batch.size') and publishes a created
+     * event for each. Also used by StudentImportService.
+     *
+     * @return the new ids, in the same order as 'items'
+     * @throws RuntimeException if the chunk fails — nothing from it is committed then
+     */
+    public List<Long> insertChunk(List<StudentRequestDTO> items) {
+        List<Student> students = new ArrayList<>(items.size());
+        transactionTemplate.executeWithoutResult(status -> {
+            for (StudentRequestDTO item : items) {
+                Student student = convertToEntity(item);
+                entityManager.persist(student);
+                students.add(student);
+            }
+            // One flush → one batched INSERT round trip, then forget the entities
+            entityManager.flush();
+            entityManager.clear();
+        });
+
+        List<Long> ids = new ArrayList<>(students.size());
+        for (Student student : students) {
+            ids.add(student.getId());
+            eventPublisher.publishEvent(StudentChangedEvent.created(toEventDTO(student)));
+        }
+        return ids;
+    }
+
+    // Returns an error message, or null if the item can be inserted
+    String validate(StudentRequestDTO request) {
+        if (request == null) {
+            return "Item is empty";
+        }
+        if (request.getName() == null || request.getName().isBlank()) {
+            return "Name is required";
+        }
+        // Float.parseFloat accepts "NaN" and "Infinity", and NaN fails both range checks
+        if (!Float.isFinite(request.getPercentage()) || request.getPercentage() < 0 || request.getPercentage() > 100) {
+            return "Percentage must be between 0 and 100";
+        }
+        return null;
+    }
+
+    // Helper method to snapshot a saved (now detached) student for the change event
+    private StudentResponseDTO toEventDTO(Student student) {
+        String resumeTitle = student.getResume() == null ? null : student.getResume().getResumeTitle();
+        return new StudentResponseDTO(student.getId(), student.getName(), student.getBranch(),
+                student.getPercentage(), resumeTitle, student.getVersion());
+    }
+
+    // Helper method to convert studentRequestDTO to student Entity
+    private Student convertToEntity(StudentRequestDTO studentRequestDTO) {
+        Student student = new Student();
+        student.setName(studentRequestDTO.getName());
+        student.setPercentage(studentRequestDTO.getPercentage());
+        student.setBranch(studentRequestDTO.getBranch());
+        student.setResume(studentRequestDTO.getResume());
+        return student;
+    }
+}
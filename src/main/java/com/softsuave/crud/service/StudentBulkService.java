@@ -0,0 +1,321 @@
+package com.softsuave.crud.service;
+
+import com.softsuave.crud.configure.CacheConfigure;
+import com.softsuave.crud.dto.StudentBulkRequestDTO;
+import com.softsuave.crud.dto.StudentBulkResultDTO;
+import com.softsuave.crud.dto.StudentResponseDTO;
+import com.softsuave.crud.event.StudentChangedEvent;
+import com.softsuave.crud.exception.InvalidRequestException;
+import com.softsuave.crud.repository.StudentRepository;
+import com.softsuave.crud.storage.ResumeBlobStore;
+import com.softsuave.crud.sync.ChangeSequence;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ----------------------- STUDENT BULK SERVICE -----------------------
+ *
+ * Set-based admin operations: change or delete many students with ONE
+ * "UPDATE ... WHERE" / "DELETE ... WHERE" statement instead of a
+ * findById + save/delete round trip per student.
+ *
+ * Bulk statements skip Hibernate's persistence context, the student cache and
+ * our in-memory views, so after each one we:
+ *   1 clear the persistence context
+ *   2 evict the affected ids from the cache
+ *   3 publish a StudentChangedEvent per affected student
+ * and, for delta sync, give every updated row its own change_seq and leave a
+ * tombstone for every deleted one.
+ *
+ * For that we need exactly the rows the statement touches, so the work runs
+ * in chunks of ID_CHUNK_SIZE, one transaction each:
+ *   - lock the next chunk of matching ids (SELECT ... FOR UPDATE, keyset by id),
+ *   - run the UPDATE / DELETE on "s.id IN (those ids)" only,
+ *   - stamp / tombstone them, commit, then evict and publish for that chunk.
+ * A row that starts matching after its chunk was locked is simply not
+ * touched, instead of being changed behind the cache's and listeners' back.
+ * Memory and lock time stay bounded by one chunk, even for a filter that
+ * matches the whole table; a failure leaves the earlier chunks applied, and
+ * running the same request again finishes the rest.
+ */
+@Service
+public class StudentBulkService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StudentBulkService.class);
+
+    // Memory: Rows locked and changed per transaction; also the size of the IN (...) lists
+    private static final int ID_CHUNK_SIZE = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private StudentRepository studentRepo;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ChangeSequence changeSequence;
+
+    @Autowired
+    private StudentSyncService studentSyncService;
+
+    @Autowired
+    private ResumeBlobStore resumeBlobStore;
+
+    @Value("${student.batch.max-items:10000}")
+    private int maxIds;
+
+    /**
+     * Applies request.set (branch and/or percentage) to every matching student.
+     */
+    public StudentBulkResultDTO bulkUpdate(StudentBulkRequestDTO request) {
+        Map<String, Object> params = new HashMap<>();
+        String where = whereClause(request, params);
+        Map<String, Object> changes = validateChanges(request.getSet());
+
+        StringBuilder jpql = new StringBuilder("UPDATE Student s SET s.version = s.version + 1");
+        changes.forEach((column, value) -> {
+            jpql.append(", s.").append(column).append(" = :set_").append(column);
+            params.put("set_" + column, value);
+        });
+        jpql.append(" WHERE s.id IN :chunkIds");
+        logger.info("Bulk update{}: {}", where, jpql);
+
+        int affected = 0;
+        long afterId = Long.MIN_VALUE;
+        while (true) {
+            long from = afterId;
+            List<Long> chunk = transactionTemplate.execute(status -> {
+                List<Long> ids = lockNextIds(where, params, from);
+                if (!ids.isEmpty()) {
+                    bind(entityManager.createQuery(jpql.toString()), params)
+                            .setParameter("chunkIds", ids)
+                            .executeUpdate();
+                    stampChangeSeq(ids);
+                    entityManager.clear();
+                }
+                return ids;
+            });
+            if (chunk == null || chunk.isEmpty()) {
+                break;
+            }
+            affected += chunk.size();
+
+            evictFromCache(chunk);
+            // Re-read the new state so listeners (stats, leaderboard, ...) see the new values
+            for (StudentResponseDTO student : studentRepo.findSummariesByIdIn(chunk)) {
+                eventPublisher.publishEvent(StudentChangedEvent.updated(student));
+            }
+            if (chunk.size() < ID_CHUNK_SIZE) {
+                break;
+            }
+            afterId = chunk.get(chunk.size() - 1);
+        }
+
+        logger.info("Bulk update changed {} students", affected);
+        return new StudentBulkResultDTO("UPDATE", affected);
+    }
+
+    /**
+     * Deletes every matching student, and the resumes they owned.
+     */
+    public StudentBulkResultDTO bulkDelete(StudentBulkRequestDTO request) {
+        Map<String, Object> params = new HashMap<>();
+        String where = whereClause(request, params);
+        logger.info("Bulk delete WHERE{}", where);
+
+        int affected = 0;
+        long afterId = Long.MIN_VALUE;
+        while (true) {
+            long from = afterId;
+            List<Long> chunk = transactionTemplate.execute(status -> {
+                // Lock the ids (and read their resume ids and files) before the rows are gone
+                List<Long> ids = new ArrayList<>();
+                List<Long> resumeIds = new ArrayList<>();
+                List<String> blobHashes = new ArrayList<>();
+                for (Object row : lockNextChunk("SELECT s.id, r.id, r.contentHash FROM Student s LEFT JOIN s.resume r",
+                        where, params, from)) {
+                    Object[] columns = (Object[]) row;
+                    ids.add((Long) columns[0]);
+                    if (columns[1] != null) {
+                        resumeIds.add((Long) columns[1]);
+                    }
+                    if (columns[2] != null) {
+                        blobHashes.add((String) columns[2]);
+                    }
+                }
+                if (ids.isEmpty()) {
+                    return ids;
+                }
+
+                entityManager.createQuery("DELETE FROM Student s WHERE s.id IN :ids")
+                        .setParameter("ids", ids)
+                        .executeUpdate();
+
+                // CascadeType.ALL does not apply to bulk deletes, so remove the orphaned resumes ourselves
+                if (!resumeIds.isEmpty()) {
+                    entityManager.createQuery("DELETE FROM Resume r WHERE r.id IN :ids")
+                            .setParameter("ids", resumeIds)
+                            .executeUpdate();
+                }
+                // ...and bulk deletes skip @PreRemove too, so give back their file references
+                blobHashes.forEach(resumeBlobStore::release);
+                studentSyncService.recordDeletes(ids);
+                entityManager.clear();
+                return ids;
+            });
+            if (chunk == null || chunk.isEmpty()) {
+                break;
+            }
+            affected += chunk.size();
+
+            evictFromCache(chunk);
+            for (Long id : chunk) {
+                eventPublisher.publishEvent(StudentChangedEvent.deleted(id));
+            }
+            if (chunk.size() < ID_CHUNK_SIZE) {
+                break;
+            }
+            afterId = chunk.get(chunk.size() - 1);
+        }
+
+        logger.info("Bulk delete removed {} students", affected);
+        return new StudentBulkResultDTO("DELETE", affected);
+    }
+
+    // ---------------------- HELPER METHODS ----------------------
+
+    // Builds " WHERE ..." from the request; refuses an empty selection
+    private String whereClause(StudentBulkRequestDTO request, Map<String, Object> params) {
+        if (request == null) {
+            throw new InvalidRequestException("Bulk request body is required");
+        }
+        List<String> conditions = new ArrayList<>();
+        if (request.getIds() != null && !request.getIds().isEmpty()) {
+            if (request.getIds().size() > maxIds) {
+                throw new InvalidRequestException("A bulk operation may list at most " + maxIds + " ids");
+            }
+            conditions.add("s.id IN :ids");
+            params.put("ids", request.getIds());
+        }
+        if (request.getBranch() != null && !request.getBranch().isBlank()) {
+            conditions.add("s.branch = :branch");
+            params.put("branch", request.getBranch());
+        }
+        if (request.getMinPct() != null) {
+            conditions.add("s.percentage >= :minPct");
+            params.put("minPct", request.getMinPct());
+        }
+        if (request.getMaxPct() != null) {
+            conditions.add("s.percentage <= :maxPct");
+            params.put("maxPct", request.getMaxPct());
+        }
+        // Never turn an empty request into "every student"
+        if (conditions.isEmpty()) {
+            throw new InvalidRequestException("A bulk operation needs 'ids' or at least one filter");
+        }
+        return " WHERE " + String.join(" AND ", conditions);
+    }
+
+    // Only branch and percentage make sense to set on many students at once
+    private Map<String, Object> validateChanges(Map<String, Object> set) {
+        if (set == null || set.isEmpty()) {
+            throw new InvalidRequestException("Bulk update needs a non-empty 'set'");
+        }
+        Map<String, Object> changes = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> entry : set.entrySet()) {
+            Object value = entry.getValue();
+            switch (entry.getKey()) {
+                case "branch" -> {
+                    if (value != null && !(value instanceof String)) {
+                        throw new InvalidRequestException("'branch' must be a string");
+                    }
+                    changes.put("branch", value);
+                }
+                case "percentage" -> {
+                    if (!(value instanceof Number number) || number.floatValue() < 0 || number.floatValue() > 100) {
+                        throw new InvalidRequestException("'percentage' must be a number between 0 and 100");
+                    }
+                    changes.put("percentage", number.floatValue());
+                }
+                default -> throw new InvalidRequestException("Field cannot be bulk-updated: " + entry.getKey());
+            }
+        }
+        return changes;
+    }
+
+    // Each row needs its own change_seq (clients page by it), which one UPDATE cannot
+    // hand out; a JDBC batch does it in one round trip per batch instead of one per row.
+    private void stampChangeSeq(List<Long> ids) {
+        List<Object[]> args = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            args.add(new Object[]{changeSequence.next(), id});
+        }
+        jdbcTemplate.batchUpdate("UPDATE student SET change_seq = ? WHERE id = ?", args);
+    }
+
+    private List<Long> lockNextIds(String where, Map<String, Object> params, long afterId) {
+        List<?> ids = lockNextChunk("SELECT s.id FROM Student s", where, params, afterId);
+        List<Long> result = new ArrayList<>(ids.size());
+        for (Object id : ids) {
+            result.add((Long) id);
+        }
+        return result;
+    }
+
+    // The next ID_CHUNK_SIZE matching rows after 'afterId', locked until the transaction ends.
+    // A locking read sees the latest committed rows, so what we lock is exactly what we change.
+    private List<?> lockNextChunk(String select, String where, Map<String, Object> params, long afterId) {
+        return bind(entityManager.createQuery(select + where + " AND s.id > :afterId ORDER BY s.id"), params)
+                .setParameter("afterId", afterId)
+                .setMaxResults(ID_CHUNK_SIZE)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .getResultList();
+    }
+
+    private Query bind(Query query, Map<String, Object> params) {
+        for (Map.Entry<String, Object> entry : params.entrySet()) {
+            // Only bind what this particular statement uses
+            if (query.getParameters().stream().anyMatch(p -> entry.getKey().equals(p.getName()))) {
+                query.setParameter(entry.getKey(), entry.getValue());
+            }
+        }
+        return query;
+    }
+
+    private void evictFromCache(List<Long> ids) {
+        Cache cache = cacheManager.getCache(CacheConfigure.STUDENTS_CACHE);
+        if (cache != null) {
+            ids.forEach(cache::evict);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.softsuave.crud.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.softsuave.crud.dto.StudentResponseDTO;
+import com.softsuave.crud.exception.InvalidRequestException;
+import com.softsuave.crud.repository.StudentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * ----------------------- STUDENT EXPORT SERVICE -----------------------
+ *
+ * Writes the whole student table to an OutputStream as NDJSON (one JSON
+ * object per line) or CSV, one row at a time.
+ *
+ * Rows come from a forward-only database stream and are written straight
+ * through a small buffer, so memory use stays the same whether there are
+ * ten students or ten million.
+ */
+@Service
+public class StudentExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StudentExportService.class);
+
+    public static final String FORMAT_NDJSON = "ndjson";
+    public static final String FORMAT_CSV = "csv";
+
+    // Memory: Flush every N rows so the client starts receiving data right away
+    // and the servlet container never holds a large unflushed response.
+    private static final int FLUSH_EVERY_ROWS = 1000;
+
+    @Autowired
+    private StudentRepository studentRepo;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Validates the requested format before any bytes are written,
+     * so a bad request still gets a proper 400 response.
+     */
+    public String resolveFormat(String format) {
+        if (format == null || format.isBlank() || FORMAT_NDJSON.equalsIgnoreCase(format)) {
+            return FORMAT_NDJSON;
+        }
+        if (FORMAT_CSV.equalsIgnoreCase(format)) {
+            return FORMAT_CSV;
+        }
+        throw new InvalidRequestException("Unsupported export format: " + format);
+    }
+
+    /**
+     * Streams every student to 'out'. The transaction stays open for the whole
+     * write because the database cursor lives inside it.
+     *
+     * @return the number of rows written
+     */
+    @Transactional(readOnly = true)
+    public long exportStudents(String format, OutputStream out) throws IOException {
+        boolean csv = FORMAT_CSV.equals(resolveFormat(format));
+        logger.info("Starting student export in {} format", csv ? FORMAT_CSV : FORMAT_NDJSON);
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        if (csv) {
+            writer.write("id,name,branch,percentage,resumeTitle\n");
+        }
+
+        long rows = 0;
+        try (Stream<StudentResponseDTO> students = studentRepo.streamAllSummaries()) {
+            // An iterator (instead of forEach) lets IOException propagate normally
+            Iterator<StudentResponseDTO> iterator = students.iterator();
+            while (iterator.hasNext()) {
+                StudentResponseDTO student = iterator.next();
+                if (csv) {
+                    writeCsvRow(writer, student);
+                } else {
+                    writer.write(objectMapper.writeValueAsString(student));
+                    writer.write('\n');
+                }
+                if (++rows % FLUSH_EVERY_ROWS == 0) {
+                    writer.flush();
+                }
+            }
+        }
+        writer.flush();
+
+        logger.info("Student export finished — {} rows written", rows);
+        return rows;
+    }
+
+    // Helper method to write one RFC 4180 CSV line
+    private void writeCsvRow(Writer writer, StudentResponseDTO student) throws IOException {
+        writer.write(String.valueOf(student.getId()));
+        writer.write(',');
+        writer.write(csvField(student.getName()));
+        writer.write(',');
+        writer.write(csvField(student.getBranch()));
+        writer.write(',');
+        writer.write(Float.toString(student.getPercentage()));
+        writer.write(',');
+        writer.write(csvField(student.getResumeTitle()));
+        writer.write('\n');
+    }
+
+    // Quotes a field only when it contains a separator, quote or line break
+    private String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
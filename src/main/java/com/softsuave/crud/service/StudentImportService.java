@@ -0,0 +1,355 @@
+package com.softsuave.crud.service;
+
+import com.softsuave.crud.dto.StudentImportErrorDTO;
+import com.softsuave.crud.dto.StudentImportResponseDTO;
+import com.softsuave.crud.dto.StudentRequestDTO;
+import com.softsuave.crud.exception.InvalidRequestException;
+import com.softsuave.crud.utility.CsvReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ----------------------- STUDENT IMPORT SERVICE -----------------------
+ *
+ * Imports a CSV file of students (header: name,branch,percentage — any order,
+ * extra columns ignored) as a three-stage pipeline:
+ *
+ *   request thread ──parsed──▶ N validator threads ──valid──▶ 1 writer thread
+ *   (reads the CSV            (turn fields into a             (chunks of 'student.batch.size',
+ *    one record at a time)     StudentRequestDTO, check it)    StudentBatchService.insertChunk)
+ *
+ * The two queues are bounded, so a fast reader simply waits when validation
+ * or the database falls behind (backpressure). Together with the capped
+ * error list this keeps memory the same for 1,000 or 1,000,000 rows:
+ *   queues (2 × 'student.import.queue-capacity' rows) + one chunk + the errors kept.
+ *
+ * Rows are validated in parallel, so they may be inserted out of file order;
+ * every error carries its CSV line number.
+ */
+@Service
+public class StudentImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StudentImportService.class);
+
+    // Memory: Longest CSV record we will buffer; anything longer is rejected unread
+    private static final int MAX_RECORD_CHARS = 8 * 1024;
+
+    // How often a blocked stage re-checks whether the pipeline has failed
+    private static final long QUEUE_POLL_MS = 200;
+
+    @Autowired
+    private StudentBatchService studentBatchService;
+
+    @Value("${student.batch.size:50}")
+    private int batchSize;
+
+    @Value("${student.import.validator-threads:4}")
+    private int validatorThreads;
+
+    @Value("${student.import.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${student.import.max-errors:1000}")
+    private int maxErrors;
+
+    // A row travelling through the pipeline; END tells a stage to stop
+    private record ImportRow(long line, List<String> fields, StudentRequestDTO student) {
+    }
+
+    private static final ImportRow END = new ImportRow(-1, null, null);
+
+    public StudentImportResponseDTO importStudents(InputStream input) throws IOException {
+        long start = System.nanoTime();
+        CsvReader csv = new CsvReader(
+                new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), 64 * 1024), MAX_RECORD_CHARS);
+        Map<String, Integer> columns = readHeader(csv);
+        logger.info("importStudents() started ({} validators, queue {}, chunk {})", validatorThreads, queueCapacity, batchSize);
+
+        ImportReport report = new ImportReport(maxErrors);
+        BlockingQueue<ImportRow> parsed = new ArrayBlockingQueue<>(queueCapacity);
+        BlockingQueue<ImportRow> valid = new ArrayBlockingQueue<>(queueCapacity);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(validatorThreads + 1,
+                runnable -> new Thread(runnable, "student-import-" + threadNumber.incrementAndGet()));
+        List<Future<?>> validators = new ArrayList<>(validatorThreads);
+        try {
+            for (int i = 0; i < validatorThreads; i++) {
+                validators.add(workers.submit(() -> runStage(() -> validateRows(parsed, valid, columns, report), report)));
+            }
+            Future<?> writer = workers.submit(() -> runStage(() -> writeRows(valid, report), report));
+
+            // Stage 1: read — put() blocks while the validators are behind
+            try {
+                List<String> fields;
+                while ((fields = csv.readRecord()) != null) {
+                    if (csv.isRecordTooLong()) {
+                        report.rowsRead.incrementAndGet();
+                        report.reject(csv.getRecordLine(), "Row is longer than " + MAX_RECORD_CHARS + " characters");
+                    } else if (!isBlank(fields)) {
+                        report.rowsRead.incrementAndGet();
+                        put(parsed, new ImportRow(csv.getRecordLine(), fields, null), report);
+                    }
+                }
+            } finally {
+                // Stop the validators, then the writer once every validator has drained
+                for (int i = 0; i < validatorThreads; i++) {
+                    put(parsed, END, report);
+                }
+                awaitAll(validators, report);
+                put(valid, END, report);
+                awaitAll(List.of(writer), report);
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+
+        long elapsedMs = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        StudentImportResponseDTO response = report.toResponse(elapsedMs);
+        logger.info("Import finished — {} rows read, {} created, {} rejected, {} failed in {} ms ({} rows/sec)",
+                response.getRowsRead(), response.getCreated(), response.getRejected(), response.getFailed(),
+                elapsedMs, Math.round(response.getRowsPerSecond()));
+        return response;
+    }
+
+    // ---------------------- PIPELINE STAGES ----------------------
+
+    // Stage 2: fields → StudentRequestDTO, REJECTED rows never reach the writer
+    private void validateRows(BlockingQueue<ImportRow> parsed, BlockingQueue<ImportRow> valid,
+                              Map<String, Integer> columns, ImportReport report) {
+        while (true) {
+            ImportRow row = take(parsed, report);
+            if (row == END) {
+                return;
+            }
+            try {
+                StudentRequestDTO student = toRequest(row.fields(), columns);
+                String error = studentBatchService.validate(student);
+                if (error == null) {
+                    put(valid, new ImportRow(row.line(), null, student), report);
+                } else {
+                    report.reject(row.line(), error);
+                }
+            } catch (IllegalArgumentException e) {
+                report.reject(row.line(), e.getMessage());
+            }
+        }
+    }
+
+    // Stage 3: one transaction + one JDBC batch per chunk; a failing chunk only fails its own rows
+    private void writeRows(BlockingQueue<ImportRow> valid, ImportReport report) {
+        List<ImportRow> chunk = new ArrayList<>(batchSize);
+        while (true) {
+            ImportRow row = take(valid, report);
+            if (row != END) {
+                chunk.add(row);
+            }
+            if (chunk.size() == batchSize || (row == END && !chunk.isEmpty())) {
+                insert(chunk, report);
+                chunk.clear();
+            }
+            if (row == END) {
+                return;
+            }
+        }
+    }
+
+    private void insert(List<ImportRow> chunk, ImportReport report) {
+        List<StudentRequestDTO> students = new ArrayList<>(chunk.size());
+        for (ImportRow row : chunk) {
+            students.add(row.student());
+        }
+        try {
+            studentBatchService.insertChunk(students);
+            report.created.addAndGet(chunk.size());
+        } catch (RuntimeException e) {
+            logger.error("Import chunk of {} students failed starting at line {}", chunk.size(), chunk.get(0).line(), e);
+            for (ImportRow row : chunk) {
+                report.fail(row.line(), e.getMessage());
+            }
+        }
+    }
+
+    // ---------------------- HELPER METHODS ----------------------
+
+    // Maps lower-cased header names to column positions; 'name' and 'percentage' are required
+    private Map<String, Integer> readHeader(CsvReader csv) throws IOException {
+        List<String> header = csv.readRecord();
+        if (header == null || csv.isRecordTooLong()) {
+            throw new InvalidRequestException("CSV file is empty or its header is unreadable");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String column = header.get(i).replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT);
+            columns.putIfAbsent(column, i);
+        }
+        if (!columns.containsKey("name") || !columns.containsKey("percentage")) {
+            throw new InvalidRequestException("CSV header must contain 'name' and 'percentage' columns");
+        }
+        return columns;
+    }
+
+    private StudentRequestDTO toRequest(List<String> fields, Map<String, Integer> columns) {
+        StudentRequestDTO student = new StudentRequestDTO();
+        student.setName(field(fields, columns, "name"));
+        String branch = field(fields, columns, "branch");
+        student.setBranch(branch == null || branch.isBlank() ? null : branch.trim());
+        String percentage = field(fields, columns, "percentage");
+        if (percentage == null || percentage.isBlank()) {
+            throw new IllegalArgumentException("Percentage is required");
+        }
+        try {
+            student.setPercentage(Float.parseFloat(percentage.trim()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Percentage is not a number: " + percentage);
+        }
+        return student;
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        return index == null || index >= fields.size() ? null : fields.get(index);
+    }
+
+    private static boolean isBlank(List<String> fields) {
+        return fields.size() == 1 && fields.get(0).isBlank();
+    }
+
+    // A stage that dies must release the others, which may be blocked on its queue
+    private static void runStage(Runnable stage, ImportReport report) {
+        try {
+            stage.run();
+        } catch (RuntimeException e) {
+            throw report.abort(e);
+        }
+    }
+
+    // put()/take() that give up as soon as another stage has failed, instead of blocking forever
+    private static void put(BlockingQueue<ImportRow> queue, ImportRow row, ImportReport report) {
+        try {
+            while (!queue.offer(row, QUEUE_POLL_MS, TimeUnit.MILLISECONDS)) {
+                report.checkNotAborted();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw report.abort(new IllegalStateException("Student import was interrupted", e));
+        }
+    }
+
+    private static ImportRow take(BlockingQueue<ImportRow> queue, ImportReport report) {
+        try {
+            ImportRow row;
+            while ((row = queue.poll(QUEUE_POLL_MS, TimeUnit.MILLISECONDS)) == null) {
+                report.checkNotAborted();
+            }
+            return row;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw report.abort(new IllegalStateException("Student import was interrupted", e));
+        }
+    }
+
+    private static void awaitAll(List<Future<?>> futures, ImportReport report) {
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                throw report.abort(cause instanceof RuntimeException runtime ? runtime
+                        : new IllegalStateException("Student import stage failed", cause));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw report.abort(new IllegalStateException("Student import was interrupted", e));
+            }
+        }
+    }
+
+    /**
+     * Counters and the (capped) error list, shared by all stages.
+     */
+    private static final class ImportReport {
+        private final int maxErrors;
+        private final AtomicLong rowsRead = new AtomicLong();
+        private final AtomicLong created = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final AtomicInteger errorCount = new AtomicInteger();
+        private final Queue<StudentImportErrorDTO> errors = new ConcurrentLinkedQueue<>();
+        private volatile RuntimeException abortCause;
+
+        ImportReport(int maxErrors) {
+            this.maxErrors = maxErrors;
+        }
+
+        void reject(long line, String error) {
+            rejected.incrementAndGet();
+            addError(new StudentImportErrorDTO(line, "REJECTED", error));
+        }
+
+        void fail(long line, String error) {
+            failed.incrementAndGet();
+            addError(new StudentImportErrorDTO(line, "FAILED", error));
+        }
+
+        private void addError(StudentImportErrorDTO error) {
+            if (errorCount.incrementAndGet() <= maxErrors) {
+                errors.add(error);
+            }
+        }
+
+        RuntimeException abort(RuntimeException cause) {
+            if (abortCause == null) {
+                abortCause = cause;
+            }
+            return cause;
+        }
+
+        void checkNotAborted() {
+            RuntimeException cause = abortCause;
+            if (cause != null) {
+                throw new IllegalStateException("Student import aborted", cause);
+            }
+        }
+
+        StudentImportResponseDTO toResponse(long elapsedMs) {
+            StudentImportResponseDTO response = new StudentImportResponseDTO();
+            response.setRowsRead(rowsRead.get());
+            response.setCreated(created.get());
+            response.setRejected(rejected.get());
+            response.setFailed(failed.get());
+            response.setElapsedMs(elapsedMs);
+            response.setRowsPerSecond(rowsRead.get() * 1000.0 / elapsedMs);
+            response.setErrorsTruncated(errorCount.get() > maxErrors);
+            List<StudentImportErrorDTO> sorted = new ArrayList<>(errors);
+            sorted.sort(Comparator.comparingLong(StudentImportErrorDTO::getLine));
+            response.setErrors(sorted);
+            return response;
+        }
+    }
+}
@@ -1,16 +1,34 @@
 package com.softsuave.crud.service;
 
+import com.softsuave.crud.configure.CacheConfigure;
+import com.softsuave.crud.dto.StudentPageResponseDTO;
 import com.softsuave.crud.dto.StudentRequestDTO;
 import com.softsuave.crud.dto.StudentResponseDTO;
 import com.softsuave.crud.entity.Student;
+import com.softsuave.crud.event.StudentChangedEvent;
+import com.softsuave.crud.exception.InvalidRequestException;
+import com.softsuave.crud.exception.PreconditionFailedException;
 import com.softsuave.crud.exception.StudentNotFoundException;
 import com.softsuave.crud.repository.StudentRepository;
+import com.softsuave.crud.repository.StudentSpecifications;
+import com.softsuave.crud.utility.StudentCursor;
+import com.softsuave.crud.utility.StudentETags;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -33,62 +51,199 @@ public class StudentService {
     @Autowired
     public StudentRepository studentrepo;
 
+    // Memory: Tells in-memory views (name index, stats, ...) about every write.
+    // See StudentChangedEvent.
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // Records tombstones for deletes (delta sync)
+    @Autowired
+    private StudentSyncService studentSyncService;
+
     private static final Logger logger=LoggerFactory.getLogger(StudentService.class);
 
+    // Memory: Page size bounds for GET /students. Clients may ask for fewer rows,
+    // never more, so one request can never pull the whole table into memory.
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private static final Set<String> SEARCH_SORT_FIELDS = Set.of("id", "name", "branch", "percentage");
+
     /**
-     * Retrieves a list of all students from the database.
+     * Retrieves one keyset-paginated page of students.
      * This method is called by the StudentController's GET /students endpoint.
+     *
+     * @param size  requested page size (clamped to 1..MAX_PAGE_SIZE)
+     * @param after cursor returned as 'nextCursor' by the previous page, or null for the first page
+     * @param sort  one of "id" (default), "branch" or "percentage"
      */
-    public List<StudentResponseDTO> getAllStudents() {
-        logger.info("getAllStudents() called — fetching all student records from the database");
+    @Transactional(readOnly = true)
+    public StudentPageResponseDTO getStudentsPage(Integer size, String after, String sort) {
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        String sortField = sort == null || sort.isBlank() ? StudentCursor.SORT_ID : sort;
+        logger.info("getStudentsPage() called — size: {}, sort: {}, after: {}", pageSize, sortField, after);
 
-        // We just pass the call directly to the repository.
-        List<Student> students = studentrepo.findAll();
-        if (students.isEmpty()) {
-            logger.warn("No student records found in the database");
-            return Collections.emptyList();
+        StudentCursor cursor = null;
+        if (after != null && !after.isBlank()) {
+            cursor = StudentCursor.decode(after);
+            if (!cursor.getSort().equals(sortField)) {
+                throw new InvalidRequestException("Cursor was issued for sort '" + cursor.getSort() + "', not '" + sortField + "'");
+            }
         }
-        logger.info("Successfully fetched {} students from the database", students.size());
-        logger.debug("Student list: {}", students);
 
-        // And maps them to DTOs before returning
-        return students.stream()
-                .map(this::mapStudentToDTO) // Create a helper method
-                .collect(Collectors.toList());
+        // We ask for one extra row: if it comes back, there is a next page.
+        List<StudentResponseDTO> students = fetchKeysetPage(sortField, cursor, PageRequest.of(0, pageSize + 1));
+        boolean hasNext = students.size() > pageSize;
+        if (hasNext) {
+            students = students.subList(0, pageSize);
+        }
+        logger.info("Successfully fetched {} students (hasNext: {})", students.size(), hasNext);
+
+        String nextCursor = null;
+        if (hasNext) {
+            StudentResponseDTO last = students.get(students.size() - 1);
+            nextCursor = new StudentCursor(sortField, sortKeyOf(last, sortField), last.getId()).encode();
+        }
+
+        // The repository already returns DTOs (no entities, no resume BLOBs)
+        return new StudentPageResponseDTO(students, students.size(), nextCursor);
+    }
+
+    // Helper method to pick the repository query matching the sort field and cursor
+    private List<StudentResponseDTO> fetchKeysetPage(String sortField, StudentCursor cursor, Pageable limit) {
+        switch (sortField) {
+            case StudentCursor.SORT_ID:
+                return cursor == null
+                        ? studentrepo.findFirstPageOrderById(limit)
+                        : studentrepo.findPageAfterId(cursor.getLastId(), limit);
+            case StudentCursor.SORT_BRANCH:
+                return cursor == null
+                        ? studentrepo.findFirstPageOrderByBranch(limit)
+                        : studentrepo.findPageAfterBranch(cursor.getKey(), cursor.getLastId(), limit);
+            case StudentCursor.SORT_PERCENTAGE:
+                if (cursor == null) {
+                    return studentrepo.findFirstPageOrderByPercentage(limit);
+                }
+                try {
+                    // Float.toString round-trips exactly; widening to double keeps the stored value
+                    double percentage = Float.parseFloat(cursor.getKey());
+                    return studentrepo.findPageAfterPercentage(percentage, cursor.getLastId(), limit);
+                } catch (NumberFormatException e) {
+                    throw new InvalidRequestException("Malformed cursor");
+                }
+            default:
+                throw new InvalidRequestException("Unsupported sort field: " + sortField);
+        }
     }
+
+    // Helper method to read the value of the sort column that goes into the cursor
+    private String sortKeyOf(StudentResponseDTO student, String sortField) {
+        switch (sortField) {
+            case StudentCursor.SORT_BRANCH:
+                return student.getBranch();
+            case StudentCursor.SORT_PERCENTAGE:
+                return Float.toString(student.getPercentage());
+            default:
+                return null;
+        }
+    }
+
     // Helper method to student to DTOs
     private StudentResponseDTO mapStudentToDTO(Student student) {
         StudentResponseDTO dto = new StudentResponseDTO();
+        dto.setId(student.getId());
         dto.setName(student.getName());
         dto.setBranch(student.getBranch());
         dto.setPercentage(student.getPercentage());
         if (student.getResume() != null) {
             dto.setResumeTitle(student.getResume().getResumeTitle());
         }
+        dto.setVersion(student.getVersion());
         return dto;
     }
 
+    /**
+     * Filters students by branch and/or a percentage range.
+     * This method is called by the StudentController's GET /students/search endpoint.
+     *
+     * Only the filters that are given become WHERE conditions, so the database
+     * can answer with one range scan on the (branch, percentage) index.
+     *
+     * @param sort field to sort by ("id", "name", "branch" or "percentage");
+     *             prefix with '-' for descending, e.g. "-percentage"
+     */
+    @Transactional(readOnly = true)
+    public List<StudentResponseDTO> searchStudents(String branch, Float minPct, Float maxPct, String sort, Integer size) {
+        logger.info("searchStudents() called — branch: {}, minPct: {}, maxPct: {}, sort: {}", branch, minPct, maxPct, sort);
+        if (minPct != null && maxPct != null && minPct > maxPct) {
+            throw new InvalidRequestException("minPct must not be greater than maxPct");
+        }
+        int limit = size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        Specification<Student> spec = StudentSpecifications.fetchResume();
+        if (branch != null && !branch.isBlank()) {
+            spec = spec.and(StudentSpecifications.hasBranch(branch));
+        }
+        if (minPct != null) {
+            spec = spec.and(StudentSpecifications.percentageAtLeast(minPct));
+        }
+        if (maxPct != null) {
+            spec = spec.and(StudentSpecifications.percentageAtMost(maxPct));
+        }
+
+        Sort order = parseSearchSort(sort);
+        List<Student> students = studentrepo.findBy(spec, query -> query.sortBy(order).limit(limit).all());
+        logger.info("searchStudents() matched {} students", students.size());
+
+        return students.stream()
+                .map(this::mapStudentToDTO)
+                .toList();
+    }
+
+    // Helper method to turn "name" / "-percentage" into a Sort, always tie-broken by id
+    private Sort parseSearchSort(String sort) {
+        if (sort == null || sort.isBlank()) {
+            return Sort.by(Sort.Direction.ASC, "id");
+        }
+        Sort.Direction direction = sort.startsWith("-") ? Sort.Direction.DESC : Sort.Direction.ASC;
+        String field = sort.startsWith("-") ? sort.substring(1) : sort;
+        if (!SEARCH_SORT_FIELDS.contains(field)) {
+            throw new InvalidRequestException("Unsupported sort field: " + field);
+        }
+        return "id".equals(field)
+                ? Sort.by(direction, "id")
+                : Sort.by(direction, field).and(Sort.by(Sort.Direction.ASC, "id"));
+    }
+
     /**
      * Retrieves a single student by their ID.
      * This method is called by the StudentController's GET /students/{id} endpoint.
+     * Results are cached by id (see CacheConfigure); writes below keep the cache fresh.
+     *
+     * Deliberately NOT readOnly, so it always reads the primary: a cache miss is
+     * often right after a write evicted the entry, and a lagging replica would
+     * put the old row back in the cache until it expires.
      */
+    @Cacheable(cacheNames = CacheConfigure.STUDENTS_CACHE, key = "#id")
+    @Transactional
     public StudentResponseDTO getStudentById(Long id) {
-        // findById returns an 'Optional<Student>' which is a container
-        // that might or might not hold a Student.
-        // .orElse(null) means: "If you found the student, return it.
-        // Otherwise, just return ResourceNotFoundException
+        // findSummaryById returns an 'Optional<StudentResponseDTO>' which is a container
+        // that might or might not hold a Student. It reads only the columns the DTO
+        // needs — never the resume file bytes.
+        // .orElseThrow means: "If you found the student, return it.
+        // Otherwise, throw StudentNotFoundException"
         logger.info("Fetching student with id: {}", id);
-        Student student=studentrepo.findById(id).orElseThrow(()->{
+        return studentrepo.findSummaryById(id).orElseThrow(()->{
             logger.error("Student not found with id: {}", id);
             return new StudentNotFoundException("Student not found with id: " + id);
         });
-        return mapStudentToDTO(student);
     }
 
     /**
      * Saves a new student to the database.
      * This method is called by the StudentController's POST /students/add endpoint.
      */
+    @CachePut(cacheNames = CacheConfigure.STUDENTS_CACHE, key = "#result.id")
     public StudentResponseDTO createStudent(StudentRequestDTO studentRequestDTO) {
         // The .save() method is smart: if the student has no ID,
         // it creates a new one (INSERT). If it has an ID, it updates the existing one (UPDATE).
@@ -99,7 +254,9 @@ public class StudentService {
         if (logger.isInfoEnabled()) {
             logger.info("Student saved successfully"+student);
         }
-        return mapStudentToDTO(savedStudent);
+        StudentResponseDTO dto = mapStudentToDTO(savedStudent);
+        eventPublisher.publishEvent(StudentChangedEvent.created(dto));
+        return dto;
     }
     //Helper method to convert studentRequestDTo to student Entity
     private Student convertToEntity(StudentRequestDTO studentRequestDTO){
@@ -116,8 +273,16 @@ public class StudentService {
     /**
      * Updates an existing student in the database.
      * This method is called by the StudentController's PUT /students/update/{id} endpoint.
+     *
+     * The resume link is NOT touched here: replacing it would orphan the old
+     * Resume row and its blob reference. Resumes are changed through the
+     * /resumes endpoints, which release the previous one.
+     *
+     * @param ifMatch the client's If-Match header, or null. When given, the update
+     *                only goes ahead if the student is still at that version.
      */
-    public StudentResponseDTO updateStudent(Long id, StudentRequestDTO newData) {
+    @CachePut(cacheNames = CacheConfigure.STUDENTS_CACHE, key = "#id")
+    public StudentResponseDTO updateStudent(Long id, StudentRequestDTO newData, String ifMatch) {
         logger.info("updateStudent() called with id: {} and StudentRequestDTO: {}", id, newData);
         // First, we must find the existing student in the database.
         Student student=studentrepo.findById(id).orElseThrow(()->{
@@ -125,6 +290,12 @@ public class StudentService {
             return new StudentNotFoundException("Student not found with id: " + id);
         });
         logger.debug("Existing student before update: {}", student);
+        // Fail fast if the client edited an older copy than what is stored now.
+        // (@Version on Student still catches a change that sneaks in after this check.)
+        if (ifMatch != null && !StudentETags.matches(ifMatch, id, student.getVersion())) {
+            logger.warn("If-Match {} does not match student {} at version {}", ifMatch, id, student.getVersion());
+            throw new PreconditionFailedException("Student " + id + " has been modified since it was read");
+        }
         // We manually update the fields on the 'student' object we found
         // with the data from the 'newData' object.
 
@@ -132,7 +303,6 @@ public class StudentService {
         student.setName(newData.getName());
         student.setBranch(newData.getBranch());
         student.setPercentage(newData.getPercentage());
-        student.setResume(newData.getResume());
 
 
         // We call .save() on the *updated* 'student' object.
@@ -142,20 +312,102 @@ public class StudentService {
         logger.info("Student with id: {} successfully updated", id);
         logger.debug("Updated student details: {}", updatedStudent);
 
-            return mapStudentToDTO(updatedStudent);
+            StudentResponseDTO dto = mapStudentToDTO(updatedStudent);
+            eventPublisher.publishEvent(StudentChangedEvent.updated(dto));
+            return dto;
         }
         // If no student was found with that ID, we return null.
 
+    /**
+     * Applies a JSON Merge Patch (RFC 7396) to a student.
+     * This method is called by the StudentController's PATCH /students/{id} endpoint.
+     *
+     * Only the fields present in the patch are written, with one targeted
+     * UPDATE and no SELECT beforehand. A null value clears the field.
+     * Patchable fields: name, branch, percentage (percentage cannot be cleared).
+     *
+     * @param ifMatch the client's If-Match header, or null
+     */
+    @CachePut(cacheNames = CacheConfigure.STUDENTS_CACHE, key = "#id")
+    public StudentResponseDTO patchStudent(Long id, Map<String, Object> patch, String ifMatch) {
+        logger.info("patchStudent() called with id: {} and fields: {}", id, patch == null ? null : patch.keySet());
+        Map<String, Object> changes = validatePatch(patch);
+        Long expectedVersion = ifMatch == null ? null : StudentETags.expectedVersion(ifMatch, id);
+
+        if (!changes.isEmpty()) {
+            int updated = studentrepo.updateColumns(id, changes, expectedVersion);
+            if (updated == 0) {
+                // Only now do we need to know *why* nothing was updated
+                if (!studentrepo.existsById(id)) {
+                    logger.error("Student not found with id: {}", id);
+                    throw new StudentNotFoundException("Student not found with id: " + id);
+                }
+                logger.warn("Patch of student {} refused — version is no longer {}", id, expectedVersion);
+                throw new PreconditionFailedException("Student " + id + " has been modified since it was read");
+            }
+            logger.info("Student with id: {} successfully patched", id);
+        }
+
+        StudentResponseDTO dto = studentrepo.findSummaryById(id).orElseThrow(()->{
+            logger.error("Student not found with id: {}", id);
+            return new StudentNotFoundException("Student not found with id: " + id);
+        });
+        if (!changes.isEmpty()) {
+            eventPublisher.publishEvent(StudentChangedEvent.updated(dto));
+        }
+        return dto;
+    }
+
+    // Helper method to check a merge patch and convert it into column → value
+    private Map<String, Object> validatePatch(Map<String, Object> patch) {
+        if (patch == null) {
+            throw new InvalidRequestException("Patch body must be a JSON object");
+        }
+        Map<String, Object> changes = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> entry : patch.entrySet()) {
+            String field = entry.getKey();
+            Object value = entry.getValue();
+            switch (field) {
+                case "name", "branch" -> {
+                    if (value != null && !(value instanceof String)) {
+                        throw new InvalidRequestException("'" + field + "' must be a string");
+                    }
+                    changes.put(field, value);
+                }
+                case "percentage" -> {
+                    if (!(value instanceof Number number)) {
+                        throw new InvalidRequestException("'percentage' must be a number");
+                    }
+                    float percentage = number.floatValue();
+                    if (percentage < 0 || percentage > 100) {
+                        throw new InvalidRequestException("'percentage' must be between 0 and 100");
+                    }
+                    changes.put(field, percentage);
+                }
+                default -> throw new InvalidRequestException("Field cannot be patched: " + field);
+            }
+        }
+        return changes;
+    }
+
     /**
      * Deletes a student from the database by their ID.
      * This method is called by the StudentController's DELETE /students/delete/{id} endpoint.
      */
+    @CacheEvict(cacheNames = CacheConfigure.STUDENTS_CACHE, key = "#id")
+    @Transactional
     public String deleteStudent(Long id) {
         logger.info("Attempting to delete student with ID: {}", id);
-        // We just tell the repository to delete the record with this ID.
-        // This method doesn't return anything, so we return our own success message.
+        // deleteById() silently does nothing for an unknown id; look the student up
+        // first so a tombstone is only left for a student that really existed.
         try {
-            studentrepo.deleteById(id);
+            Student student = studentrepo.findById(id)
+                    .orElseThrow(() -> new StudentNotFoundException("Student not found with ID: " + id));
+            studentrepo.delete(student);
+            // Offline clients learn about the delete from this tombstone (GET /students/changes)
+            studentSyncService.recordDeletes(List.of(id));
+            // Listeners run after the commit (@TransactionalEventListener)
+            eventPublisher.publishEvent(StudentChangedEvent.deleted(id));
             logger.info("Successfully deleted student with ID: {}", id);
             return "Deleted";
         }catch (StudentNotFoundException e){
@@ -0,0 +1,125 @@
+package com.softsuave.crud.service;
+
+import com.softsuave.crud.dto.StudentChangeDTO;
+import com.softsuave.crud.dto.StudentChangesResponseDTO;
+import com.softsuave.crud.entity.StudentTombstone;
+import com.softsuave.crud.exception.InvalidRequestException;
+import com.softsuave.crud.repository.StudentRepository;
+import com.softsuave.crud.repository.StudentTombstoneRepository;
+import com.softsuave.crud.sync.ChangeSequence;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * ----------------------- STUDENT SYNC SERVICE -----------------------
+ *
+ * Delta sync for offline clients: GET /students/changes?since=<watermark>
+ * returns only what changed after the watermark the client last received.
+ *
+ * How it works:
+ *   - Every insert/update stamps Student.changeSeq from ChangeSequence.
+ *   - Every delete leaves a StudentTombstone with its own changeSeq.
+ *   - A request reads both tables with an index range scan
+ *     (since, safeWatermark] and merges them in changeSeq order.
+ *
+ * A client starts with since=0 (a full download, once) and from then on
+ * only receives the rows that actually changed.
+ */
+@Service
+public class StudentSyncService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StudentSyncService.class);
+
+    public static final int DEFAULT_CHANGES_SIZE = 500;
+    public static final int MAX_CHANGES_SIZE = 5000;
+
+    @Autowired
+    private StudentRepository studentRepo;
+
+    @Autowired
+    private StudentTombstoneRepository tombstoneRepo;
+
+    @Autowired
+    private ChangeSequence changeSequence;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Changes after 'since', oldest first, at most 'size' of them.
+     * Deliberately NOT readOnly: a lagging read replica could be missing changes
+     * below the watermark, and the client would then skip them for good.
+     */
+    @Transactional
+    public StudentChangesResponseDTO getChanges(Long since, Integer size) {
+        long from = since == null ? 0 : since;
+        if (from < 0) {
+            throw new InvalidRequestException("'since' must not be negative");
+        }
+        int limit = size == null ? DEFAULT_CHANGES_SIZE : Math.max(1, Math.min(size, MAX_CHANGES_SIZE));
+        long upTo = changeSequence.safeWatermark();
+        logger.info("getChanges() called — since: {}, up to: {}, size: {}", from, upTo, limit);
+        if (from >= upTo) {
+            return new StudentChangesResponseDTO(List.of(), from, false);
+        }
+
+        // Fetch one extra row from each side to know whether more is waiting
+        List<StudentChangeDTO> upserts = studentRepo.findChangesBetween(from, upTo, PageRequest.of(0, limit + 1));
+        List<StudentTombstone> deletes = tombstoneRepo.findChangesBetween(from, upTo, PageRequest.of(0, limit + 1));
+
+        List<StudentChangeDTO> changes = new ArrayList<>(Math.min(limit, upserts.size() + deletes.size()));
+        int u = 0;
+        int d = 0;
+        while (changes.size() < limit && (u < upserts.size() || d < deletes.size())) {
+            boolean takeUpsert = d >= deletes.size()
+                    || (u < upserts.size() && upserts.get(u).getChangeSeq() < deletes.get(d).getChangeSeq());
+            if (takeUpsert) {
+                changes.add(upserts.get(u++));
+            } else {
+                StudentTombstone tombstone = deletes.get(d++);
+                changes.add(new StudentChangeDTO(StudentChangeDTO.DELETE, tombstone.getStudentId(),
+                        tombstone.getChangeSeq(), null));
+            }
+        }
+
+        boolean hasMore = u < upserts.size() || d < deletes.size();
+        // When everything up to 'upTo' has been returned the client can jump straight there
+        long watermark = hasMore ? changes.get(changes.size() - 1).getChangeSeq() : upTo;
+        logger.info("getChanges() returning {} changes, watermark {}, hasMore {}", changes.size(), watermark, hasMore);
+        return new StudentChangesResponseDTO(changes, watermark, hasMore);
+    }
+
+    /**
+     * Leaves a tombstone for each deleted student. Runs inside the caller's
+     * transaction, so a delete and its tombstone are committed together.
+     * Callers pass only ids that were actually deleted.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDeletes(Collection<Long> studentIds) {
+        Instant now = Instant.now();
+        for (Long studentId : studentIds) {
+            StudentTombstone tombstone = entityManager.find(StudentTombstone.class, studentId);
+            if (tombstone == null) {
+                entityManager.persist(new StudentTombstone(studentId, changeSequence.next(), now));
+            } else {
+                // An older tombstone for this id: move it forward, or clients that
+                // synced past it would never hear about this delete
+                tombstone.setChangeSeq(changeSequence.next());
+                tombstone.setDeletedAt(now);
+            }
+        }
+        entityManager.flush();
+    }
+}
@@ -0,0 +1,194 @@
+package com.softsuave.crud.stats;
+
+import com.softsuave.crud.dto.BranchStatsDTO;
+import com.softsuave.crud.dto.StudentResponseDTO;
+import com.softsuave.crud.event.StudentChangedEvent;
+import com.softsuave.crud.repository.StudentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * ----------------------- BRANCH STATISTICS -----------------------
+ *
+ * Live per-branch count / mean / min / max / percentiles of Student.percentage,
+ * kept entirely in memory so GET /students/stats never touches the database.
+ *
+ * How it works:
+ *   - One PercentageHistogram per branch.
+ *   - Built once at startup by streaming every student. Requests are already
+ *     being served by then, so events that arrive during the stream are held
+ *     back and applied after it — otherwise a streamed row could undo a newer
+ *     update, or count a deleted student again.
+ *   - After that, every StudentChangedEvent moves one value: the student's
+ *     old (branch, percentage) is removed and the new one added.
+ *   - We remember each student's current (branch, percentage) — packed into a
+ *     single long — so the old value is known even when the event only
+ *     carries the new state.
+ *
+ * A query costs O(branches), whatever the number of students.
+ */
+@Component
+public class BranchStatistics {
+
+    private static final Logger logger = LoggerFactory.getLogger(BranchStatistics.class);
+
+    // Students without a branch are counted under this name
+    public static final String NO_BRANCH = "UNASSIGNED";
+    public static final String ALL_BRANCHES = "ALL";
+
+    @Autowired
+    private StudentRepository studentRepo;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final Map<String, PercentageHistogram> histograms = new TreeMap<>();
+
+    // Interned branch names, so a student's branch fits in an int
+    private final List<String> branchNames = new ArrayList<>();
+    private final Map<String, Integer> branchIndex = new HashMap<>();
+
+    // student id → (branch index << 32 | float bits of percentage)
+    private final Map<Long, Long> current = new HashMap<>();
+
+    // Events held back while rebuild() streams the table; null when not rebuilding
+    private List<StudentChangedEvent> heldBack;
+
+    /**
+     * Builds the aggregates once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.nanoTime();
+        synchronized (this) {
+            heldBack = new ArrayList<>();
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<StudentResponseDTO> students = studentRepo.streamAllSummaries()) {
+                    students.forEach(student -> put(student.getId(), student.getBranch(), student.getPercentage()));
+                }
+            });
+        } finally {
+            // Anything that changed while we streamed is newer than what we streamed
+            synchronized (this) {
+                List<StudentChangedEvent> events = heldBack;
+                heldBack = null;
+                events.forEach(this::apply);
+            }
+        }
+        logger.info("Branch statistics built for {} students in {} ms", size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Keeps the aggregates in step with StudentService writes.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onStudentChanged(StudentChangedEvent event) {
+        if (heldBack != null) {
+            heldBack.add(event);
+        } else {
+            apply(event);
+        }
+    }
+
+    private void apply(StudentChangedEvent event) {
+        if (event.getType() == StudentChangedEvent.Type.DELETED) {
+            remove(event.getStudentId());
+        } else {
+            StudentResponseDTO student = event.getStudent();
+            put(student.getId(), student.getBranch(), student.getPercentage());
+        }
+    }
+
+    public synchronized void put(Long studentId, String branch, float percentage) {
+        if (studentId == null) {
+            return;
+        }
+        removeLocked(studentId);
+        String name = branch == null || branch.isBlank() ? NO_BRANCH : branch;
+        histograms.computeIfAbsent(name, b -> new PercentageHistogram()).add(percentage);
+        current.put(studentId, ((long) indexOf(name) << 32) | (Float.floatToIntBits(percentage) & 0xFFFFFFFFL));
+    }
+
+    public synchronized void remove(Long studentId) {
+        removeLocked(studentId);
+    }
+
+    /**
+     * One row per branch (sorted by name) followed by the merged "ALL" row.
+     */
+    public synchronized List<BranchStatsDTO> snapshot() {
+        List<BranchStatsDTO> result = new ArrayList<>(histograms.size() + 1);
+        PercentageHistogram all = new PercentageHistogram();
+        histograms.forEach((branch, histogram) -> {
+            result.add(toDTO(branch, histogram));
+            all.merge(histogram);
+        });
+        result.add(toDTO(ALL_BRANCHES, all));
+        return result;
+    }
+
+    /**
+     * Statistics for a single branch, or null if nobody is in it.
+     */
+    public synchronized BranchStatsDTO forBranch(String branch) {
+        PercentageHistogram histogram = histograms.get(branch);
+        return histogram == null ? null : toDTO(branch, histogram);
+    }
+
+    public synchronized int size() {
+        return current.size();
+    }
+
+    // ---------------------- HELPER METHODS ----------------------
+
+    private void removeLocked(Long studentId) {
+        Long packed = current.remove(studentId);
+        if (packed == null) {
+            return;
+        }
+        String branch = branchNames.get((int) (packed >>> 32));
+        float percentage = Float.intBitsToFloat((int) (long) packed);
+        PercentageHistogram histogram = histograms.get(branch);
+        if (histogram != null) {
+            histogram.remove(percentage);
+            if (histogram.isEmpty()) {
+                histograms.remove(branch);
+            }
+        }
+    }
+
+    private int indexOf(String branch) {
+        return branchIndex.computeIfAbsent(branch, b -> {
+            branchNames.add(b);
+            return branchNames.size() - 1;
+        });
+    }
+
+    private static BranchStatsDTO toDTO(String branch, PercentageHistogram histogram) {
+        BranchStatsDTO dto = new BranchStatsDTO();
+        dto.setBranch(branch);
+        dto.setCount(histogram.getCount());
+        dto.setMean(histogram.getMean());
+        dto.setMin(histogram.getMin());
+        dto.setMax(histogram.getMax());
+        dto.setP50(histogram.percentile(0.50));
+        dto.setP90(histogram.percentile(0.90));
+        dto.setP99(histogram.percentile(0.99));
+        return dto;
+    }
+}
@@ -0,0 +1,114 @@
+package com.softsuave.crud.stats;
+
+import java.util.Arrays;
+
+/**
+ * Memory Comment: A fixed-resolution histogram of percentages (0.00 – 100.00).
+ *
+ * Every value lands in one of 10,001 buckets (one per 0.01), so:
+ *   - add and remove are O(1) — unlike t-digest, values can be taken out again
+ *     when a student is updated or deleted;
+ *   - two histograms merge by adding their bucket counts, which is how the
+ *     "ALL branches" figures are built from the per-branch ones;
+ *   - percentiles are exact to 0.01 and cost one pass over the buckets,
+ *     independent of how many students there are.
+ *
+ * Not thread-safe on its own; BranchStatistics guards it with a lock.
+ */
+public class PercentageHistogram {
+
+    private static final int SCALE = 100;              // buckets per 1.0
+    private static final int BUCKETS = 100 * SCALE + 1; // 0.00 .. 100.00
+
+    private final long[] counts = new long[BUCKETS];
+    private long count;
+    private double sum;
+
+    public void add(float percentage) {
+        counts[bucketOf(percentage)]++;
+        count++;
+        sum += percentage;
+    }
+
+    public void remove(float percentage) {
+        int bucket = bucketOf(percentage);
+        if (counts[bucket] > 0) {
+            counts[bucket]--;
+            count--;
+            sum -= percentage;
+        }
+    }
+
+    public void merge(PercentageHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] += other.counts[i];
+        }
+        count += other.count;
+        sum += other.sum;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMean() {
+        return count == 0 ? 0 : sum / count;
+    }
+
+    public double getMin() {
+        for (int i = 0; i < BUCKETS; i++) {
+            if (counts[i] > 0) {
+                return valueOf(i);
+            }
+        }
+        return 0;
+    }
+
+    public double getMax() {
+        for (int i = BUCKETS - 1; i >= 0; i--) {
+            if (counts[i] > 0) {
+                return valueOf(i);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @param quantile between 0 and 1, e.g. 0.9 for the 90th percentile
+     * @return the smallest value with at least that share of values at or below it
+     */
+    public double percentile(double quantile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return valueOf(i);
+            }
+        }
+        return getMax();
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(counts, 0);
+        count = 0;
+        sum = 0;
+    }
+
+    // Out-of-range values are clamped so a bad row can never break the histogram
+    private static int bucketOf(float percentage) {
+        int bucket = Math.round(percentage * SCALE);
+        return Math.max(0, Math.min(BUCKETS - 1, bucket));
+    }
+
+    private static double valueOf(int bucket) {
+        return (double) bucket / SCALE;
+    }
+}
@@ -0,0 +1,294 @@
+package com.softsuave.crud.stats;
+
+import com.softsuave.crud.dto.LeaderboardEntryDTO;
+import com.softsuave.crud.dto.StudentRankDTO;
+import com.softsuave.crud.dto.StudentResponseDTO;
+import com.softsuave.crud.event.StudentChangedEvent;
+import com.softsuave.crud.repository.StudentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * ----------------------- PERCENTAGE LEADERBOARD -----------------------
+ *
+ * In-memory ranking of students by percentage — overall and per branch —
+ * for GET /students/top and GET /students/{id}/rank. No MySQL involved.
+ *
+ * How it works:
+ *   - Each student becomes ONE primitive long key:
+ *         (10000 - percentage in hundredths) << 49 | id
+ *     so the natural order of the keys is "highest percentage first, then
+ *     lowest id". Keys live in a ConcurrentSkipListSet per branch (and one
+ *     for everybody), so top-N is just reading the first N keys: O(log n + N).
+ *   - A Fenwick tree of counts per percentage bucket answers "how many
+ *     students score higher than X" in O(log buckets), which gives a
+ *     student's rank without walking the list. Its sum over all buckets is
+ *     the ranking's size (ConcurrentSkipListSet.size() would walk every key).
+ *   - Kept up to date from StudentChangedEvent, like BranchStatistics —
+ *     including holding back events that arrive during the startup build.
+ *
+ * Top-N reads never block; writes and rank queries share a read/write lock.
+ */
+@Component
+public class PercentageLeaderboard {
+
+    private static final Logger logger = LoggerFactory.getLogger(PercentageLeaderboard.class);
+
+    private static final int SCALE = 100;               // hundredths of a percent
+    private static final int BUCKETS = 100 * SCALE + 1; // 0.00 .. 100.00
+    private static final int ID_BITS = 49;
+    private static final long ID_MASK = (1L << ID_BITS) - 1;
+
+    public static final int DEFAULT_TOP = 10;
+    public static final int MAX_TOP = 100;
+
+    @Autowired
+    private StudentRepository studentRepo;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Ranking overall = new Ranking();
+    private final Map<String, Ranking> byBranch = new ConcurrentHashMap<>();
+    private final Map<Long, Placement> placements = new ConcurrentHashMap<>();
+
+    // Events held back while rebuild() streams the table; null when not rebuilding
+    private List<StudentChangedEvent> heldBack;
+
+    // What we remember about a ranked student (needed to remove the old key on change)
+    private record Placement(String branch, String name, float percentage, long key) {
+    }
+
+    /**
+     * Builds the rankings once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            heldBack = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<StudentResponseDTO> students = studentRepo.streamAllSummaries()) {
+                    students.forEach(this::put);
+                }
+            });
+        } finally {
+            // Anything that changed while we streamed is newer than what we streamed
+            lock.writeLock().lock();
+            try {
+                List<StudentChangedEvent> events = heldBack;
+                heldBack = null;
+                events.forEach(this::apply);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        logger.info("Leaderboard built for {} students in {} ms", placements.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Keeps the rankings in step with StudentService writes.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentChanged(StudentChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (heldBack != null) {
+                heldBack.add(event);
+            } else {
+                apply(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void apply(StudentChangedEvent event) {
+        if (event.getType() == StudentChangedEvent.Type.DELETED) {
+            remove(event.getStudentId());
+        } else {
+            put(event.getStudent());
+        }
+    }
+
+    public void put(StudentResponseDTO student) {
+        if (student.getId() == null) {
+            return;
+        }
+        String branch = branchOf(student.getBranch());
+        int bucket = bucketOf(student.getPercentage());
+        long key = keyOf(bucket, student.getId());
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(student.getId());
+            placements.put(student.getId(), new Placement(branch, student.getName(), student.getPercentage(), key));
+            overall.add(key, bucket);
+            byBranch.computeIfAbsent(branch, b -> new Ranking()).add(key, bucket);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long studentId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(studentId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * The 'n' best students, overall (branch == null) or within one branch.
+     */
+    public List<LeaderboardEntryDTO> top(int n, String branch) {
+        Ranking ranking = branch == null || branch.isBlank() ? overall : byBranch.get(branch);
+        if (ranking == null) {
+            return List.of();
+        }
+        List<LeaderboardEntryDTO> result = new ArrayList<>(n);
+        Iterator<Long> keys = ranking.keys.iterator();
+        while (keys.hasNext() && result.size() < n) {
+            long id = keys.next() & ID_MASK;
+            Placement placement = placements.get(id);
+            if (placement != null) { // may have just been removed by a concurrent write
+                result.add(new LeaderboardEntryDTO(result.size() + 1, id, placement.name(),
+                        placement.branch(), placement.percentage()));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The student's rank overall and inside their branch, or null if unknown.
+     */
+    public StudentRankDTO rankOf(Long studentId) {
+        lock.readLock().lock();
+        try {
+            Placement placement = placements.get(studentId);
+            if (placement == null) {
+                return null;
+            }
+            Ranking branchRanking = byBranch.get(placement.branch());
+            StudentRankDTO dto = new StudentRankDTO();
+            dto.setId(studentId);
+            dto.setBranch(placement.branch());
+            dto.setPercentage(placement.percentage());
+            dto.setOverallRank(overall.rankOf(placement.key()));
+            dto.setOverallCount(overall.size());
+            dto.setBranchRank(branchRanking.rankOf(placement.key()));
+            dto.setBranchCount(branchRanking.size());
+            return dto;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ---------------------- HELPER METHODS ----------------------
+
+    private void removeLocked(Long studentId) {
+        Placement old = placements.remove(studentId);
+        if (old == null) {
+            return;
+        }
+        int bucket = bucketOfKey(old.key());
+        overall.remove(old.key(), bucket);
+        Ranking branchRanking = byBranch.get(old.branch());
+        if (branchRanking != null) {
+            branchRanking.remove(old.key(), bucket);
+            if (branchRanking.keys.isEmpty()) {
+                byBranch.remove(old.branch());
+            }
+        }
+    }
+
+    private static String branchOf(String branch) {
+        return branch == null || branch.isBlank() ? BranchStatistics.NO_BRANCH : branch;
+    }
+
+    // Bucket 0 is the HIGHEST percentage, so ascending keys mean descending scores
+    private static int bucketOf(float percentage) {
+        int hundredths = Math.max(0, Math.min(BUCKETS - 1, Math.round(percentage * SCALE)));
+        return (BUCKETS - 1) - hundredths;
+    }
+
+    private static long keyOf(int bucket, long id) {
+        return ((long) bucket << ID_BITS) | (id & ID_MASK);
+    }
+
+    private static int bucketOfKey(long key) {
+        return (int) (key >>> ID_BITS);
+    }
+
+    /**
+     * One ordered set of keys plus a Fenwick tree of how many keys sit in each bucket.
+     */
+    private static final class Ranking {
+        private final ConcurrentSkipListSet<Long> keys = new ConcurrentSkipListSet<>();
+        private final long[] tree = new long[BUCKETS + 1]; // Fenwick tree, 1-based
+
+        void add(long key, int bucket) {
+            if (keys.add(key)) {
+                update(bucket, 1);
+            }
+        }
+
+        void remove(long key, int bucket) {
+            if (keys.remove(key)) {
+                update(bucket, -1);
+            }
+        }
+
+        // 1-based rank: everyone in a better bucket, plus ties in this bucket with a lower id
+        long rankOf(long key) {
+            int bucket = bucketOfKey(key);
+            long better = bucket == 0 ? 0 : prefixSum(bucket - 1);
+            long tiesBefore = keys.subSet((long) bucket << ID_BITS, key).size();
+            return better + tiesBefore + 1;
+        }
+
+        // Every key is counted in exactly one bucket
+        long size() {
+            return prefixSum(BUCKETS - 1);
+        }
+
+        private void update(int bucket, long delta) {
+            for (int i = bucket + 1; i < tree.length; i += i & -i) {
+                tree[i] += delta;
+            }
+        }
+
+        // Number of keys in buckets 0..bucket (inclusive)
+        private long prefixSum(int bucket) {
+            long sum = 0;
+            for (int i = bucket + 1; i > 0; i -= i & -i) {
+                sum += tree[i];
+            }
+            return sum;
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package com.softsuave.crud.storage;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.ResourceRegion;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * ----------------------- BLOB DOWNLOADS -----------------------
+ *
+ * Sends a stored file back to the client without copying it through the heap,
+ * with HTTP Range support so an interrupted download can resume.
+ *
+ *   - Always:        Accept-Ranges: bytes, and ETag = the SHA-256 of the file
+ *                    (If-None-Match → 304, If-Range honoured).
+ *   - Range: bytes=a-b  → 206 Partial Content for that slice;
+ *                    an unsatisfiable range → 416 with Content-Range: bytes * /len.
+ *   - On Tomcat (plain HTTP, file ≥ sendfile-min-size) the body is not written
+ *     by us at all: we only set Tomcat's sendfile request attributes and the
+ *     connector hands the file to the kernel (sendfile / FileChannel.transferTo).
+ *   - Elsewhere (HTTPS, other containers, small files, several ranges) Spring
+ *     streams the bytes in small chunks — from BlobMemoryCache when the file
+ *     is hot, otherwise from disk.
+ *
+ * Files the store keeps gzip-compressed are sent exactly as stored, with
+ * Content-Encoding: gzip, to clients whose Accept-Encoding allows it — no
+ * recompression, and ranges/sendfile work on the compressed bytes. Other
+ * clients get the file decompressed on the fly (whole file, no ranges).
+ */
+@Component
+public class BlobDownloads {
+
+    private static final Logger logger = LoggerFactory.getLogger(BlobDownloads.class);
+
+    // Tomcat's request attributes (org.apache.catalina.Globals)
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end"; // exclusive
+
+    @Autowired
+    private BlobMemoryCache blobMemoryCache;
+
+    // Below this a plain write is cheaper than setting up sendfile (Tomcat's DefaultServlet uses 48KB too)
+    @Value("${resume.download.sendfile-min-size:48KB}")
+    private DataSize sendfileMinSize;
+
+    /**
+     * @param file        the stored file
+     * @param length      the size of the ORIGINAL bytes
+     * @param hash        their SHA-256, the basis of the (strong) ETag
+     * @param encoding    how the stored file is encoded (null = raw, "gzip")
+     * @param contentType Content-Type to send
+     * @param disposition Content-Disposition to send
+     * @return the response, or null when a 304 has already been written
+     */
+    public ResponseEntity<?> serve(Path file, long length, String hash, String encoding, MediaType contentType,
+                                   String disposition, HttpServletRequest request, HttpServletResponse response) {
+        boolean sendEncoded = encoding != null && accepts(request.getHeader(HttpHeaders.ACCEPT_ENCODING), encoding);
+        // Each representation needs its own strong ETag
+        String etag = sendEncoded ? "\"" + hash + "-" + encoding + "\"" : "\"" + hash + "\"";
+        // Must be decided here, not by Spring after we return: a 304 must not get a sendfile body
+        if (new ServletWebRequest(request, response).checkNotModified(etag)) {
+            return null;
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(contentType);
+        headers.set(HttpHeaders.CONTENT_DISPOSITION, disposition);
+        headers.setETag(etag);
+        if (encoding != null) {
+            headers.setVary(List.of(HttpHeaders.ACCEPT_ENCODING));
+        }
+
+        if (encoding != null && !sendEncoded) {
+            // Rare (every browser takes gzip): inflate while sending, no ranges
+            headers.set(HttpHeaders.ACCEPT_RANGES, "none");
+            headers.setContentLength(length);
+            try {
+                return ResponseEntity.ok().headers(headers)
+                        .body(new InputStreamResource(new GZIPInputStream(storedBytes(file, hash, encoding).getInputStream())));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not open stored file " + hash, e);
+            }
+        }
+        if (sendEncoded) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, encoding);
+            try {
+                length = Files.size(file); // from here on everything is about the stored bytes
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read stored file " + hash, e);
+            }
+        }
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        List<HttpRange> ranges;
+        try {
+            ranges = HttpRange.parseRanges(request.getHeader(HttpHeaders.RANGE));
+        } catch (IllegalArgumentException e) {
+            return notSatisfiable(headers, length);
+        }
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null && !ifRange.trim().equals(etag)) {
+            ranges = List.of(); // the client's partial copy is of another file: send it all
+        }
+
+        if (ranges.size() > 1) {
+            // multipart/byteranges — rare enough to leave to Spring
+            return ResponseEntity.ok().headers(headers).body(storedBytes(file, hash, encoding));
+        }
+
+        long start = 0;
+        long end = length - 1;
+        HttpStatus status = HttpStatus.OK;
+        if (ranges.size() == 1) {
+            try {
+                start = ranges.get(0).getRangeStart(length);
+                end = ranges.get(0).getRangeEnd(length);
+            } catch (IllegalArgumentException e) {
+                return notSatisfiable(headers, length);
+            }
+            status = HttpStatus.PARTIAL_CONTENT;
+            headers.set(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+        }
+        long count = length == 0 ? 0 : end - start + 1;
+        headers.setContentLength(count);
+
+        if (canSendfile(request, count)) {
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            logger.debug("Sending {} bytes of {} with sendfile", count, hash);
+            return ResponseEntity.status(status).headers(headers).build();
+        }
+
+        // Not sendfile: serve from the off-heap cache when the file is hot (and small enough)
+        Resource body = storedBytes(file, hash, encoding);
+        if (status == HttpStatus.PARTIAL_CONTENT) {
+            return ResponseEntity.status(status).headers(headers).body(new ResourceRegion(body, start, count));
+        }
+        if (request.getHeader(HttpHeaders.RANGE) != null) {
+            // If-Range did not match. Spring would apply the Range to any other
+            // Resource body, so hand it a plain stream of the whole file.
+            try {
+                return ResponseEntity.ok().headers(headers).body(new InputStreamResource(body.getInputStream()));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not open stored file " + hash, e);
+            }
+        }
+        return ResponseEntity.ok().headers(headers).body(body);
+    }
+
+    // ---------------------- HELPER METHODS ----------------------
+
+    // The stored bytes: from the memory cache if it holds (or takes) them, else the file
+    private Resource storedBytes(Path file, String hash, String encoding) {
+        ByteBuffer cached = blobMemoryCache.get(hash, encoding, file);
+        return cached != null ? new ByteBufferResource(cached, hash) : new FileSystemResource(file);
+    }
+
+    private boolean canSendfile(HttpServletRequest request, long count) {
+        return HttpMethod.GET.matches(request.getMethod())
+                && count >= sendfileMinSize.toBytes()
+                && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED));
+    }
+
+    // Accept-Encoding: gzip, deflate;q=0.5, *;q=0  →  is 'encoding' allowed (q > 0)?
+    static boolean accepts(String acceptEncoding, String encoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        boolean wildcard = false;
+        for (String part : acceptEncoding.split(",")) {
+            String[] pieces = part.trim().split(";");
+            String name = pieces[0].trim();
+            double q = 1.0;
+            for (int i = 1; i < pieces.length; i++) {
+                String parameter = pieces[i].trim();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        q = Double.parseDouble(parameter.substring(2));
+                    } catch (NumberFormatException e) {
+                        q = 0;
+                    }
+                }
+            }
+            if (name.equalsIgnoreCase(encoding)) {
+                return q > 0; // an explicit entry beats the wildcard
+            }
+            if (name.equals("*")) {
+                wildcard = q > 0;
+            }
+        }
+        return wildcard;
+    }
+
+    private static ResponseEntity<?> notSatisfiable(HttpHeaders headers, long length) {
+        headers.set(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+        return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE).headers(headers).build();
+    }
+}
@@ -0,0 +1,120 @@
+package com.softsuave.crud.storage;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.softsuave.crud.dto.BlobCacheStatsDTO;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * ----------------------- BLOB MEMORY CACHE -----------------------
+ *
+ * Keeps the most downloaded resume files in memory OUTSIDE the Java heap
+ * (direct ByteBuffers), so a hot file is served without opening it again
+ * and without creating garbage for the GC to chase.
+ *
+ *   - Keyed by content hash (+ encoding): files are immutable and shared by
+ *     every resume with the same content, so an entry never goes stale.
+ *   - Budgeted in BYTES ('resume.download.cache.max-size'), not entries; files
+ *     bigger than 'max-entry-size' are never cached.
+ *   - Caffeine decides what stays (W-TinyLFU): a burst of one-off downloads
+ *     does not push out the files recruiters keep coming back to.
+ *   - Hit ratio, evictions and bytes held go to Micrometer ("resumeBlobs"
+ *     cache metrics and resume.blob.cache.bytes) and GET /resumes/cache/stats.
+ *
+ * Note: an evicted buffer's native memory is given back when the GC collects
+ * the ByteBuffer object; -XX:MaxDirectMemorySize caps the total either way.
+ */
+@Component
+public class BlobMemoryCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(BlobMemoryCache.class);
+
+    private final Cache<String, ByteBuffer> cache;
+    private final long maxBytes;
+    private final long maxEntryBytes;
+
+    public BlobMemoryCache(@Value("${resume.download.cache.max-size:256MB}") DataSize maxSize,
+                           @Value("${resume.download.cache.max-entry-size:4MB}") DataSize maxEntrySize,
+                           MeterRegistry meterRegistry) {
+        this.maxBytes = maxSize.toBytes();
+        this.maxEntryBytes = Math.min(maxEntrySize.toBytes(), Integer.MAX_VALUE);
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String key, ByteBuffer buffer) -> buffer.capacity())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "resumeBlobs");
+        Gauge.builder("resume.blob.cache.bytes", this, BlobMemoryCache::bytesHeld)
+                .baseUnit("bytes")
+                .description("Bytes of resume files held off-heap")
+                .register(meterRegistry);
+        logger.info("Resume blob memory cache: {} bytes, files up to {} bytes", maxBytes, maxEntryBytes);
+    }
+
+    /**
+     * The stored bytes of a file, from memory (loading it on a miss), or null
+     * if it is not cacheable. Each call returns its own read-only view, so
+     * concurrent downloads never share a position.
+     */
+    public ByteBuffer get(String hash, String encoding, Path file) {
+        if (maxBytes <= 0) {
+            return null;
+        }
+        String key = encoding == null ? hash : hash + "." + encoding;
+        // Only a file that can be cached should count as a hit or miss
+        if (cache.policy().getIfPresentQuietly(key) == null && !cacheable(file)) {
+            return null;
+        }
+        ByteBuffer buffer = cache.get(key, k -> load(file));
+        return buffer.asReadOnlyBuffer();
+    }
+
+    public long bytesHeld() {
+        return cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L);
+    }
+
+    public BlobCacheStatsDTO stats() {
+        CacheStats stats = cache.stats();
+        return new BlobCacheStatsDTO(stats.hitCount(), stats.missCount(), stats.hitRate(), stats.evictionCount(),
+                cache.estimatedSize(), bytesHeld(), maxBytes);
+    }
+
+    // ---------------------- HELPER METHODS ----------------------
+
+    private boolean cacheable(Path file) {
+        try {
+            return Files.size(file) <= maxEntryBytes;
+        } catch (IOException e) {
+            return false; // let the normal path report the problem
+        }
+    }
+
+    private static ByteBuffer load(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect((int) channel.size());
+            while (buffer.hasRemaining() && channel.read(buffer) != -1) {
+                // keep reading until the buffer is full
+            }
+            buffer.flip();
+            return buffer;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not load stored file " + file.getFileName(), e);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.softsuave.crud.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.WritableByteChannel;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Memory Comment: Writes a gzip file (RFC 1952) to a channel straight from
+ * ByteBuffers. GZIPOutputStream only takes byte[], which would mean copying
+ * every direct buffer into the heap first; Deflater and CRC32 both accept
+ * (direct) ByteBuffers, so this just adds the 10-byte header and 8-byte trailer.
+ */
+class GzipChannelWriter implements AutoCloseable {
+
+    private static final byte[] HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+    private final WritableByteChannel out;
+    private final Deflater deflater;
+    private final CRC32 crc = new CRC32();
+    private final ByteBuffer buffer;
+    private long bytesIn;
+    private long bytesOut;
+
+    GzipChannelWriter(WritableByteChannel out, int level, int bufferSize) throws IOException {
+        this.out = out;
+        this.deflater = new Deflater(level, true); // raw deflate, we write the gzip framing
+        this.buffer = ByteBuffer.allocateDirect(bufferSize);
+        writeFully(ByteBuffer.wrap(HEADER));
+    }
+
+    /**
+     * Compresses the remaining bytes of 'src' without moving its position.
+     */
+    void write(ByteBuffer src) throws IOException {
+        bytesIn += src.remaining();
+        crc.update(src.duplicate());
+        deflater.setInput(src.duplicate());
+        while (!deflater.needsInput()) {
+            drain();
+        }
+    }
+
+    void finish() throws IOException {
+        deflater.finish();
+        while (!deflater.finished()) {
+            drain();
+        }
+        ByteBuffer trailer = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+        trailer.putInt((int) crc.getValue());
+        trailer.putInt((int) bytesIn); // ISIZE is the length modulo 2^32
+        trailer.flip();
+        writeFully(trailer);
+    }
+
+    long getBytesIn() {
+        return bytesIn;
+    }
+
+    // Header and trailer included
+    long getBytesOut() {
+        return bytesOut;
+    }
+
+    @Override
+    public void close() {
+        deflater.end(); // frees the native zlib memory
+    }
+
+    private void drain() throws IOException {
+        deflater.deflate(buffer);
+        buffer.flip();
+        writeFully(buffer);
+        buffer.clear();
+    }
+
+    private void writeFully(ByteBuffer bytes) throws IOException {
+        while (bytes.hasRemaining()) {
+            bytesOut += out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.softsuave.crud.storage;
+
+import com.softsuave.crud.utility.ContentTypeSniffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Memory Comment:
+ * One-off move of resume files that were stored as LONGBLOBs in
+ * resume.file_data (before the ResumeBlobStore existed) into the blob store.
+ *
+ * Runs at startup and is a no-op once every row has a content_hash (or the
+ * column has been dropped). Each row is streamed out of MySQL into the store
+ * on its own, so the table is never loaded into memory, then its hash is set,
+ * the LONGBLOB cleared and the blob referenced in one small transaction.
+ *
+ * ddl-auto=update never drops columns; once this has run, the DBA can run
+ *   ALTER TABLE resume DROP COLUMN file_data; OPTIMIZE TABLE resume;
+ * to give the space back.
+ */
+@Component
+public class ResumeBlobMigrationRunner implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResumeBlobMigrationRunner.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ResumeBlobStore resumeBlobStore;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Integer legacyColumn = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.columns " +
+                        "WHERE table_schema = DATABASE() AND table_name = 'resume' AND column_name = 'file_data'",
+                Integer.class);
+        if (legacyColumn == null || legacyColumn == 0) {
+            return;
+        }
+
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT id FROM resume WHERE file_data IS NOT NULL AND content_hash IS NULL", Long.class);
+        if (ids.isEmpty()) {
+            logger.info("Column resume.file_data is no longer used and can be dropped (then OPTIMIZE TABLE resume)");
+            return;
+        }
+
+        logger.info("Moving {} resume files from resume.file_data into the blob store", ids.size());
+        int moved = 0;
+        for (Long id : ids) {
+            StoredBlob blob = jdbcTemplate.query("SELECT file_data FROM resume WHERE id = ?", rs -> {
+                if (!rs.next()) {
+                    return null;
+                }
+                try (InputStream in = rs.getBinaryStream(1)) {
+                    return in == null ? null : resumeBlobStore.store(in);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Could not move the file of resume " + id, e);
+                }
+            }, id);
+            if (blob == null) {
+                continue;
+            }
+
+            Boolean updated = transactionTemplate.execute(status -> {
+                // Guarded, so a second instance running the same migration cannot double count
+                // Old uploads may have no file_type; downloads need one, so fill it from the sniffed type
+                int rows = jdbcTemplate.update("UPDATE resume SET content_hash = ?, file_size = ?, content_encoding = ?, " +
+                        "file_type = COALESCE(file_type, ?), file_data = NULL WHERE id = ? AND content_hash IS NULL",
+                        blob.hash(), blob.size(), blob.contentEncoding(),
+                        ContentTypeSniffer.resolve(blob.sniffedType(), null), id);
+                if (rows == 1) {
+                    resumeBlobStore.acquire(blob.hash(), blob.size(), blob.contentEncoding());
+                }
+                return rows == 1;
+            });
+            if (Boolean.TRUE.equals(updated)) {
+                moved++;
+            }
+        }
+        logger.info("Moved {} resume files into the blob store; resume.file_data can now be dropped " +
+                "(then OPTIMIZE TABLE resume)", moved);
+    }
+}
@@ -0,0 +1,24 @@
+package com.softsuave.crud.storage;
+
+import com.softsuave.crud.entity.Resume;
+import jakarta.persistence.PreRemove;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Memory Comment: JPA entity listener that gives back a Resume's reference to
+ * its stored file whenever the Resume row is deleted through Hibernate —
+ * including the cascade from deleting its Student. (Bulk JPQL deletes skip
+ * entity listeners; StudentBulkService releases those itself.)
+ */
+@Component
+public class ResumeBlobReleaseListener {
+
+    @Autowired
+    private ResumeBlobStore resumeBlobStore;
+
+    @PreRemove
+    public void release(Resume resume) {
+        resumeBlobStore.release(resume.getContentHash());
+    }
+}
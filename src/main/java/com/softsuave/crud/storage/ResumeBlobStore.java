@@ -0,0 +1,395 @@
+package com.softsuave.crud.storage;
+
+import com.softsuave.crud.utility.ContentTypeSniffer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * ----------------------- RESUME BLOB STORE -----------------------
+ *
+ * Content-addressed storage for resume files. A file is stored ONCE under the
+ * SHA-256 of its bytes, no matter how many students upload it:
+ *
+ *   <file.upload-dir>/blobs/ab/cd/abcd…(64 hex chars)      raw
+ *   <file.upload-dir>/blobs/ab/cd/abcd…(64 hex chars).gz   gzip-compressed
+ *
+ * The two levels of 2-character directories keep any one directory small.
+ * The hash is always of the ORIGINAL bytes; a file that compresses well is
+ * kept gzip-compressed only, and can be sent as-is with Content-Encoding: gzip.
+ * Resume rows only keep the hash and metadata; the bytes never go into MySQL.
+ *
+ * Reference counting (table resume_blob):
+ *   acquire(hash) when a Resume starts pointing at a file, release(hash) when
+ *   it stops. Both run in the caller's transaction. Files are not deleted at
+ *   release time: sweep() removes files whose count has stayed at 0 for
+ *   'resume.blob.gc-grace'.
+ *
+ *   store() itself records the file with a count of 0 and a fresh
+ *   last_used_at, under the same lock the sweeper takes — also when the
+ *   upload is deduplicated against an old, unreferenced file. That gives the
+ *   upload the grace period to commit its acquire(), and a file whose upload
+ *   never gets linked is still known to the sweeper.
+ */
+@Component
+public class ResumeBlobStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResumeBlobStore.class);
+
+    private static final HexFormat HEX = HexFormat.of();
+    private static final int LOCK_STRIPES = 64;
+
+    // Content-Encoding of a gzip-compressed stored file
+    public static final String GZIP = "gzip";
+
+    // Formats that are compressed already; gzip would only cost CPU
+    private static final Set<String> ALREADY_COMPRESSED = Set.of(
+            ContentTypeSniffer.ZIP, ContentTypeSniffer.PNG, ContentTypeSniffer.JPEG);
+
+    // After this much input, stop compressing if it is not shrinking enough
+    private static final long GIVE_UP_CHECK_BYTES = 1024 * 1024;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${file.upload-dir}")
+    private String uploadDir;
+
+    @Value("${resume.blob.gc-grace:PT1H}")
+    private Duration gcGrace;
+
+    @Value("${resume.blob.compression.enabled:true}")
+    private boolean compressionEnabled;
+
+    @Value("${resume.blob.compression.min-size:4KB}")
+    private DataSize compressionMinSize;
+
+    @Value("${resume.blob.compression.max-ratio:0.9}")
+    private double compressionMaxRatio;
+
+    @Value("${resume.blob.compression.level:6}")
+    private int compressionLevel;
+
+    private final int bufferSize;
+    private final ArrayBlockingQueue<ByteBuffer> bufferPool;
+
+    private Path root;
+    private Path tmp;
+
+    // Memory: Serializes "move a new file into place" against "sweeper deletes it"
+    // for the same hash (striped, so unrelated hashes do not wait on each other).
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+
+    public ResumeBlobStore(@Value("${resume.upload.buffer-size:64KB}") DataSize bufferSize,
+                           @Value("${resume.upload.buffer-pool-size:16}") int bufferPoolSize) {
+        this.bufferSize = (int) bufferSize.toBytes();
+        this.bufferPool = new ArrayBlockingQueue<>(bufferPoolSize);
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        root = Paths.get(uploadDir, "blobs").toAbsolutePath().normalize();
+        tmp = root.resolve("tmp");
+        Files.createDirectories(tmp);
+        logger.info("Resume blob store at {}", root);
+    }
+
+    /**
+     * Copies 'content' into the store and returns its hash, size and sniffed
+     * type. If a file with the same contents is already stored, the new copy
+     * is discarded. Does not change any reference count — call acquire() for that.
+     */
+    public StoredBlob store(InputStream content) throws IOException {
+        return store(Channels.newChannel(content));
+    }
+
+    /**
+     * Single pass over the upload: every chunk read into the (direct) buffer
+     * is fed to the SHA-256 digest, its first bytes to the type sniffer, then
+     * written to the temp file and — unless the format is already compressed —
+     * to a gzip temp file as well. The file is never read twice and never held
+     * in the heap as a whole.
+     *
+     * The gzip copy is kept instead of the raw one when the file is at least
+     * 'compression.min-size' and shrinks to 'compression.max-ratio' or less.
+     */
+    public StoredBlob store(ReadableByteChannel source) throws IOException {
+        Path temp = Files.createTempFile(tmp, "upload-", ".part");
+        Path gzipTemp = null;
+        FileChannel gzipOut = null;
+        GzipChannelWriter gzip = null;
+        ByteBuffer buffer = borrowBuffer();
+        try {
+            MessageDigest digest = sha256();
+            byte[] head = new byte[ContentTypeSniffer.HEAD_SIZE];
+            int headLength = 0;
+            long size = 0;
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                while (source.read(buffer) != -1) {
+                    buffer.flip();
+                    if (headLength < head.length) {
+                        int n = Math.min(head.length - headLength, buffer.remaining());
+                        buffer.get(buffer.position(), head, headLength, n);
+                        headLength += n;
+                    }
+                    // After the first chunk we know the format: only try to compress what can shrink
+                    if (size == 0 && compressionEnabled && worthCompressing(ContentTypeSniffer.sniff(head, headLength))) {
+                        gzipTemp = Files.createTempFile(tmp, "upload-", ".gz.part");
+                        gzipOut = FileChannel.open(gzipTemp, StandardOpenOption.WRITE);
+                        gzip = new GzipChannelWriter(gzipOut, compressionLevel, bufferSize);
+                    }
+                    digest.update(buffer.duplicate());
+                    if (gzip != null) {
+                        gzip.write(buffer);
+                        if (gzip.getBytesIn() >= GIVE_UP_CHECK_BYTES
+                                && gzip.getBytesOut() > gzip.getBytesIn() * compressionMaxRatio) {
+                            gzip.close(); // not shrinking enough: stop spending CPU on it
+                            gzip = null;
+                        }
+                    }
+                    while (buffer.hasRemaining()) {
+                        size += out.write(buffer);
+                    }
+                    buffer.clear();
+                }
+            }
+
+            boolean keepGzip = false;
+            if (gzip != null) {
+                gzip.finish();
+                gzipOut.close();
+                keepGzip = size >= compressionMinSize.toBytes()
+                        && gzip.getBytesOut() <= size * compressionMaxRatio;
+            }
+            String hash = HEX.formatHex(digest.digest());
+            String encoding = moveIntoPlace(keepGzip ? gzipTemp : temp, hash, size, keepGzip ? GZIP : null);
+            return new StoredBlob(hash, size, ContentTypeSniffer.sniff(head, headLength), encoding);
+        } finally {
+            returnBuffer(buffer);
+            if (gzip != null) {
+                gzip.close();
+            }
+            if (gzipOut != null) {
+                gzipOut.close();
+            }
+            Files.deleteIfExists(temp);
+            if (gzipTemp != null) {
+                Files.deleteIfExists(gzipTemp);
+            }
+        }
+    }
+
+    /**
+     * Moves an already-hashed temp file to its final place (or drops it if the
+     * contents are already stored, raw or compressed). Used by store() and by
+     * upload paths that compute the digest themselves.
+     *
+     * Either way the blob's row is touched before the lock is released, so the
+     * sweeper cannot delete the file before the caller's acquire() commits.
+     *
+     * @param size     size of the ORIGINAL bytes
+     * @param encoding null for a raw file, GZIP for a gzip one
+     * @return the encoding of the copy that is now stored (an existing copy wins)
+     */
+    public String moveIntoPlace(Path temp, String hash, long size, String encoding) throws IOException {
+        Path target = pathOf(hash, encoding);
+        ReentrantLock lock = lockFor(hash);
+        lock.lock();
+        try {
+            String stored = storedEncoding(hash);
+            if (stored != null || Files.exists(pathOf(hash, null))) {
+                logger.debug("Blob {} already stored — deduplicated", hash);
+                touch(hash, size, stored);
+                return stored;
+            }
+            Files.createDirectories(target.getParent());
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target);
+            } catch (FileAlreadyExistsException e) {
+                // Written by another instance between our check and the move: same bytes, keep theirs
+            }
+            touch(hash, size, encoding);
+            return encoding;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Where the stored file is: <root>/ab/cd/<hash>, or <hash>.gz when gzip-encoded.
+     */
+    public Path pathOf(String hash, String encoding) {
+        if (hash == null || hash.length() != 64 || !hash.chars().allMatch(c -> (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f'))) {
+            throw new IllegalArgumentException("Not a SHA-256 hash: " + hash);
+        }
+        Path directory = root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4));
+        if (encoding == null) {
+            return directory.resolve(hash);
+        }
+        if (GZIP.equals(encoding)) {
+            return directory.resolve(hash + ".gz");
+        }
+        throw new IllegalArgumentException("Unknown blob encoding: " + encoding);
+    }
+
+    public boolean exists(String hash) {
+        return Files.exists(pathOf(hash, null)) || Files.exists(pathOf(hash, GZIP));
+    }
+
+    /**
+     * The original bytes, decompressed if the file is stored compressed.
+     */
+    public InputStream open(String hash, String encoding) throws IOException {
+        InputStream in = Files.newInputStream(pathOf(hash, encoding));
+        return GZIP.equals(encoding) ? new GZIPInputStream(in, bufferSize) : in;
+    }
+
+    public Path tempDirectory() {
+        return tmp;
+    }
+
+    /**
+     * A direct buffer of 'resume.upload.buffer-size' from the shared pool, for
+     * other upload paths that copy into the store's temp directory. Direct
+     * memory is only freed when the GC gets round to it, so allocating one per
+     * request can run out of it; always hand it back with returnBuffer().
+     */
+    public ByteBuffer borrowBuffer() {
+        ByteBuffer buffer = bufferPool.poll();
+        return buffer != null ? buffer : ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    public void returnBuffer(ByteBuffer buffer) {
+        buffer.clear();
+        bufferPool.offer(buffer); // dropped (and later freed) if the pool is full
+    }
+
+    /**
+     * One more Resume row uses this blob. Runs in the caller's transaction, so
+     * the count only changes if the Resume is actually saved.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void acquire(String hash, long size, String encoding) {
+        Timestamp now = Timestamp.from(Instant.now());
+        // MySQL upsert: the first reference creates the row
+        jdbcTemplate.update("INSERT INTO resume_blob (hash, size, content_encoding, ref_count, last_used_at) " +
+                "VALUES (?, ?, ?, 1, ?) ON DUPLICATE KEY UPDATE ref_count = ref_count + 1, last_used_at = ?",
+                hash, size, encoding, now, now);
+    }
+
+    /**
+     * One Resume row no longer uses this blob.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void release(String hash) {
+        if (hash == null) {
+            return;
+        }
+        jdbcTemplate.update("UPDATE resume_blob SET ref_count = ref_count - 1, last_used_at = ? " +
+                "WHERE hash = ? AND ref_count > 0", Timestamp.from(Instant.now()), hash);
+    }
+
+    /**
+     * Deletes files nobody has referenced for at least the grace period.
+     */
+    @Scheduled(fixedDelayString = "${resume.blob.gc-interval-ms:3600000}", initialDelayString = "${resume.blob.gc-interval-ms:3600000}")
+    public void sweep() {
+        Timestamp cutoff = Timestamp.from(Instant.now().minus(gcGrace));
+        List<String> candidates = jdbcTemplate.queryForList(
+                "SELECT hash FROM resume_blob WHERE ref_count = 0 AND last_used_at < ?", String.class, cutoff);
+        int deleted = 0;
+        for (String hash : candidates) {
+            ReentrantLock lock = lockFor(hash);
+            lock.lock();
+            try {
+                // Re-check in the DELETE itself: someone may have acquired it meanwhile
+                int rows = jdbcTemplate.update(
+                        "DELETE FROM resume_blob WHERE hash = ? AND ref_count = 0 AND last_used_at < ?", hash, cutoff);
+                if (rows == 1) {
+                    Files.deleteIfExists(pathOf(hash, null));
+                    Files.deleteIfExists(pathOf(hash, GZIP));
+                    deleted++;
+                }
+            } catch (IOException e) {
+                logger.warn("Could not delete unreferenced blob {}", hash, e);
+            } finally {
+                lock.unlock();
+            }
+        }
+        if (deleted > 0) {
+            logger.info("Blob sweep deleted {} unreferenced resume files", deleted);
+        }
+    }
+
+    // ---------------------- HELPER METHODS ----------------------
+
+    // Records a stored file with no references yet, or pushes an existing row's
+    // last_used_at past the sweeper's cutoff. Autocommits: it must be visible to
+    // the sweeper whether or not the upload is ever linked.
+    private void touch(String hash, long size, String encoding) {
+        Timestamp now = Timestamp.from(Instant.now());
+        jdbcTemplate.update("INSERT INTO resume_blob (hash, size, content_encoding, ref_count, last_used_at) " +
+                "VALUES (?, ?, ?, 0, ?) ON DUPLICATE KEY UPDATE last_used_at = ?",
+                hash, size, encoding, now, now);
+    }
+
+    private static boolean worthCompressing(String sniffedType) {
+        return sniffedType == null || !ALREADY_COMPRESSED.contains(sniffedType);
+    }
+
+    // The encoding of the stored copy, or null if it is raw (or not stored)
+    private String storedEncoding(String hash) {
+        return Files.exists(pathOf(hash, GZIP)) ? GZIP : null;
+    }
+
+
+    private ReentrantLock lockFor(String hash) {
+        return locks[Math.floorMod(hash.hashCode(), LOCK_STRIPES)];
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
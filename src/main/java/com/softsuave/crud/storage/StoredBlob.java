@@ -0,0 +1,10 @@
+package com.softsuave.crud.storage;
+
+/**
+ * Result of writing a file into the ResumeBlobStore: its SHA-256 (the key),
+ * its size in bytes, the type sniffed from its first bytes (null if the
+ * format was not recognised) and how the stored copy is encoded (null = raw,
+ * or ResumeBlobStore.GZIP).
+ */
+public record StoredBlob(String hash, long size, String sniffedType, String contentEncoding) {
+}
@@ -0,0 +1,103 @@
+package com.softsuave.crud.sync;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Memory Comment:
+ * The monotonically increasing counter behind Student.changeSeq and
+ * StudentTombstone.changeSeq (used by GET /students/changes).
+ *
+ * Numbers are handed out in memory (this app is the only writer), seeded at
+ * startup from the highest value already stored. Rows that existed before
+ * the column was added are back-filled with change_seq = id first.
+ *
+ * The catch with any counter: transaction A can take 10, transaction B take
+ * 11, and B commit first. A client that synced up to 11 would then never see
+ * 10. So we remember which numbers belong to still-open transactions, and
+ * safeWatermark() never goes past the lowest of them.
+ */
+@Component
+public class ChangeSequence implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeSequence.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ConcurrentSkipListSet<Long> inFlight = new ConcurrentSkipListSet<>();
+    private long last;
+
+    /**
+     * Runs once every bean (and so the schema update) is ready, before the
+     * web server accepts requests.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        int backfilled = jdbcTemplate.update("UPDATE student SET change_seq = id WHERE change_seq IS NULL");
+        Long maxStudent = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(change_seq), 0) FROM student", Long.class);
+        Long maxTombstone = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(MAX(change_seq), 0) FROM student_tombstone", Long.class);
+        seed(Math.max(maxStudent == null ? 0 : maxStudent, maxTombstone == null ? 0 : maxTombstone));
+        logger.info("Change sequence seeded at {} ({} existing students back-filled)", last, backfilled);
+    }
+
+    public void seed(long value) {
+        lock.lock();
+        try {
+            last = Math.max(last, value);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The next number. Inside a transaction it counts as "in flight" until
+     * that transaction commits or rolls back.
+     */
+    public long next() {
+        long seq;
+        lock.lock();
+        try {
+            seq = ++last;
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                inFlight.add(seq);
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    inFlight.remove(seq);
+                }
+            });
+        }
+        return seq;
+    }
+
+    /**
+     * The highest number below which every change is committed (or rolled back),
+     * i.e. how far a client can safely sync right now.
+     */
+    public long safeWatermark() {
+        lock.lock();
+        try {
+            Long oldestOpen = inFlight.isEmpty() ? null : inFlight.first();
+            return oldestOpen == null ? last : oldestOpen - 1;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
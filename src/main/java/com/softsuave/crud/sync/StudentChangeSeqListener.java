@@ -0,0 +1,29 @@
+package com.softsuave.crud.sync;
+
+import com.softsuave.crud.entity.Student;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Memory Comment: JPA entity listener that stamps Student.changeSeq on every
+ * INSERT and UPDATE that goes through Hibernate (save, persist, dirty checking).
+ *
+ * Spring Boot lets Hibernate create entity listeners as Spring beans, which
+ * is how ChangeSequence gets injected here. Bulk JPQL updates bypass entity
+ * listeners, so those set change_seq themselves (see StudentBulkService and
+ * StudentRepositoryCustomImpl).
+ */
+@Component
+public class StudentChangeSeqListener {
+
+    @Autowired
+    private ChangeSequence changeSequence;
+
+    @PrePersist
+    @PreUpdate
+    public void stamp(Student student) {
+        student.setChangeSeq(changeSequence.next());
+    }
+}
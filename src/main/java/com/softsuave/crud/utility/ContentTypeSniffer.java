@@ -0,0 +1,109 @@
+package com.softsuave.crud.utility;
+
+/**
+ * Memory Comment: Guesses a file's type from its first bytes ("magic numbers")
+ * instead of trusting the Content-Type the browser sent.
+ *
+ * Only the first HEAD_SIZE bytes are looked at, so it can run on the fly while
+ * an upload streams past. It knows the formats people upload as resumes;
+ * anything else comes back as null ("don't know").
+ */
+public final class ContentTypeSniffer {
+
+    public static final int HEAD_SIZE = 512;
+
+    public static final String PDF = "application/pdf";
+    public static final String MSWORD = "application/msword";
+    public static final String ZIP = "application/zip";
+    public static final String RTF = "application/rtf";
+    public static final String PNG = "image/png";
+    public static final String JPEG = "image/jpeg";
+    public static final String TEXT = "text/plain";
+    public static final String OCTET_STREAM = "application/octet-stream";
+
+    private static final byte[] PDF_MAGIC = {'%', 'P', 'D', 'F', '-'};
+    private static final byte[] OLE_MAGIC = {(byte) 0xD0, (byte) 0xCF, 0x11, (byte) 0xE0, (byte) 0xA1, (byte) 0xB1, 0x1A, (byte) 0xE1};
+    private static final byte[] ZIP_MAGIC = {'P', 'K', 0x03, 0x04};
+    private static final byte[] RTF_MAGIC = {'{', '\\', 'r', 't', 'f'};
+    private static final byte[] PNG_MAGIC = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final byte[] JPEG_MAGIC = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF};
+
+    private ContentTypeSniffer() {
+    }
+
+    /**
+     * @param head   the first bytes of the file
+     * @param length how many of them are filled (less than HEAD_SIZE for tiny files)
+     * @return the detected MIME type, or null if the bytes are not recognised
+     */
+    public static String sniff(byte[] head, int length) {
+        if (length == 0) {
+            return null;
+        }
+        if (startsWith(head, length, PDF_MAGIC)) {
+            return PDF;
+        }
+        if (startsWith(head, length, OLE_MAGIC)) {
+            return MSWORD;
+        }
+        if (startsWith(head, length, ZIP_MAGIC)) {
+            return ZIP; // .docx/.odt are zip files too — see resolve()
+        }
+        if (startsWith(head, length, RTF_MAGIC)) {
+            return RTF;
+        }
+        if (startsWith(head, length, PNG_MAGIC)) {
+            return PNG;
+        }
+        if (startsWith(head, length, JPEG_MAGIC)) {
+            return JPEG;
+        }
+        return looksLikeText(head, length) ? TEXT : null;
+    }
+
+    /**
+     * The type to store: the sniffed one, except that a zip upload keeps the
+     * more specific office type the client declared (a .docx IS a zip).
+     * Falls back to the declared type, then to application/octet-stream.
+     */
+    public static String resolve(String sniffed, String declared) {
+        boolean hasDeclared = declared != null && !declared.isBlank();
+        if (sniffed == null) {
+            return hasDeclared ? declared : OCTET_STREAM;
+        }
+        if (ZIP.equals(sniffed) && hasDeclared
+                && (declared.startsWith("application/vnd.openxmlformats") || declared.startsWith("application/vnd.oasis"))) {
+            return declared;
+        }
+        return sniffed;
+    }
+
+    // ---------------------- HELPER METHODS ----------------------
+
+    private static boolean startsWith(byte[] head, int length, byte[] magic) {
+        if (length < magic.length) {
+            return false;
+        }
+        for (int i = 0; i < magic.length; i++) {
+            if (head[i] != magic[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // No NUL bytes and almost no control characters other than tab/CR/LF
+    private static boolean looksLikeText(byte[] head, int length) {
+        int control = 0;
+        for (int i = 0; i < length; i++) {
+            int b = head[i] & 0xFF;
+            if (b == 0) {
+                return false;
+            }
+            if (b < 0x20 && b != '\t' && b != '\r' && b != '\n' && b != '\f') {
+                control++;
+            }
+        }
+        return control * 20 < length; // under 5%
+    }
+}
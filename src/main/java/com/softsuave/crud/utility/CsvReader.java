@@ -0,0 +1,130 @@
+package com.softsuave.crud.utility;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Memory Comment: A small streaming RFC 4180 CSV reader.
+ *
+ * Reads one record at a time from a Reader, so a file of any size is never
+ * held in memory — only the current record is. Quoted fields may contain
+ * commas, doubled quotes ("") and line breaks.
+ *
+ * A record longer than 'maxRecordChars' (separators included) is skipped
+ * (and reported as such) instead of being buffered, so one broken line
+ * cannot blow up the heap.
+ */
+public class CsvReader {
+
+    private final Reader reader;
+    private final int maxRecordChars;
+    private final StringBuilder field = new StringBuilder();
+
+    private long line = 1;        // line the next record starts on
+    private long recordLine = 1;  // line the last returned record started on
+    private boolean recordTooLong;
+    private int peeked = -2;      // -2 = nothing peeked
+
+    public CsvReader(Reader reader, int maxRecordChars) {
+        this.reader = reader;
+        this.maxRecordChars = maxRecordChars;
+    }
+
+    /**
+     * @return the fields of the next record, or null at end of input
+     */
+    public List<String> readRecord() throws IOException {
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+        recordLine = line;
+        recordTooLong = false;
+        List<String> fields = new ArrayList<>();
+        field.setLength(0);
+        int length = 0;
+        boolean quoted = false;
+
+        while (true) {
+            if (c == -1) {
+                fields.add(field.toString());
+                return fields;
+            }
+            if (quoted) {
+                if (c == '"') {
+                    int next = read();
+                    if (next == '"') {
+                        append('"', ++length);
+                    } else {
+                        quoted = false;
+                        c = next;
+                        continue;
+                    }
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    append((char) c, ++length);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                // Separators count too: a line of only commas would otherwise grow 'fields' without limit
+                if (++length > maxRecordChars) {
+                    recordTooLong = true;
+                } else {
+                    fields.add(field.toString());
+                }
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n') {
+                if (c == '\r') {
+                    int next = read();
+                    if (next != '\n') {
+                        peeked = next;
+                    }
+                }
+                line++;
+                fields.add(field.toString());
+                return fields;
+            } else {
+                append((char) c, ++length);
+            }
+            c = read();
+        }
+    }
+
+    /**
+     * The line number (1-based) on which the last returned record started.
+     */
+    public long getRecordLine() {
+        return recordLine;
+    }
+
+    /**
+     * True when the last returned record was cut short because it exceeded
+     * maxRecordChars; its fields must not be trusted.
+     */
+    public boolean isRecordTooLong() {
+        return recordTooLong;
+    }
+
+    // Once a record is too long we keep reading (to find its end) but stop storing it
+    private void append(char c, int length) {
+        if (length > maxRecordChars) {
+            recordTooLong = true;
+        } else {
+            field.append(c);
+        }
+    }
+
+    private int read() throws IOException {
+        if (peeked != -2) {
+            int c = peeked;
+            peeked = -2;
+            return c;
+        }
+        return reader.read();
+    }
+}
@@ -0,0 +1,71 @@
+package com.softsuave.crud.utility;
+
+import com.softsuave.crud.exception.InvalidRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Memory Comment: An opaque keyset-pagination cursor for student listings.
+ *
+ * A cursor remembers the sort field, the sort-key value and the id of the
+ * LAST row on the previous page. The next query simply seeks past that
+ * (key, id) pair, which the database answers with an index range scan.
+ *
+ * On the wire it is Base64URL("sort|key|id") so clients treat it as a token
+ * and never try to build one themselves.
+ */
+public final class StudentCursor {
+
+    public static final String SORT_ID = "id";
+    public static final String SORT_BRANCH = "branch";
+    public static final String SORT_PERCENTAGE = "percentage";
+
+    private final String sort;
+    private final String key;
+    private final long lastId;
+
+    public StudentCursor(String sort, String key, long lastId) {
+        this.sort = sort;
+        this.key = key;
+        this.lastId = lastId;
+    }
+
+    public String getSort() {
+        return sort;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public long getLastId() {
+        return lastId;
+    }
+
+    public String encode() {
+        String raw = sort + "|" + (key == null ? "" : key) + "|" + lastId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor previously produced by {@link #encode()}.
+     * Throws InvalidRequestException for anything that was not.
+     */
+    public static StudentCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int first = raw.indexOf('|');
+            int last = raw.lastIndexOf('|');
+            if (first < 0 || first == last) {
+                throw new InvalidRequestException("Malformed cursor");
+            }
+            return new StudentCursor(raw.substring(0, first),
+                    raw.substring(first + 1, last),
+                    Long.parseLong(raw.substring(last + 1)));
+        } catch (IllegalArgumentException e) {
+            // Covers both bad Base64 and NumberFormatException
+            throw new InvalidRequestException("Malformed cursor");
+        }
+    }
+}
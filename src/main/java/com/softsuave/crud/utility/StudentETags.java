@@ -0,0 +1,86 @@
+package com.softsuave.crud.utility;
+
+import com.softsuave.crud.dto.StudentResponseDTO;
+import com.softsuave.crud.exception.PreconditionFailedException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Memory Comment: Builds and reads the strong ETags used by /students.
+ *
+ * - One student:  "<id>-<version>"  — changes exactly when the row changes.
+ * - A list/page:  a SHA-256 digest over every (id, version) on the page plus
+ *   the next cursor, so adding, removing or editing any row changes it.
+ *
+ * Returning these through ResponseEntity.eTag(...) is enough for Spring MVC to
+ * answer a matching If-None-Match with 304 Not Modified and skip the body.
+ */
+public final class StudentETags {
+
+    private StudentETags() {
+    }
+
+    public static String of(StudentResponseDTO student) {
+        return "\"" + student.getId() + "-" + versionOf(student) + "\"";
+    }
+
+    public static String ofPage(List<StudentResponseDTO> students, String nextCursor) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (StudentResponseDTO student : students) {
+                digest.update((student.getId() + ":" + versionOf(student) + ";").getBytes(StandardCharsets.UTF_8));
+            }
+            digest.update(String.valueOf(nextCursor).getBytes(StandardCharsets.UTF_8));
+            // 128 bits is plenty to tell two pages apart
+            return "\"" + HexFormat.of().formatHex(digest.digest(), 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Checks an If-Match header against the student's current ETag.
+     * "*" matches any existing student; a list of ETags matches if any one does.
+     */
+    public static boolean matches(String ifMatch, Long id, Long version) {
+        String current = "\"" + id + "-" + (version == null ? 0 : version) + "\"";
+        for (String candidate : ifMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(current)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reads the version out of an If-Match header for a conditional write.
+     * Returns null for "*" (any version is fine).
+     * Throws PreconditionFailedException if no tag in the header is for this student.
+     */
+    public static Long expectedVersion(String ifMatch, Long id) {
+        String prefix = "\"" + id + "-";
+        for (String candidate : ifMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return null;
+            }
+            if (tag.startsWith(prefix) && tag.endsWith("\"") && tag.length() > prefix.length() + 1) {
+                try {
+                    return Long.parseLong(tag.substring(prefix.length(), tag.length() - 1));
+                } catch (NumberFormatException e) {
+                    // not one of ours, keep looking
+                }
+            }
+        }
+        throw new PreconditionFailedException("If-Match does not refer to the current student " + id);
+    }
+
+    private static long versionOf(StudentResponseDTO student) {
+        return student.getVersion() == null ? 0 : student.getVersion();
+    }
+}
@@ -0,0 +1,93 @@
+package com.softsuave.crud.configure;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Memory Comment: Read/write routing against two embedded H2 databases.
+ * Each database holds one row saying which one it is, so a query tells us
+ * where the connection really went.
+ */
+public class ReplicaRoutingDataSourceTest {
+
+    private EmbeddedDatabase primary;
+    private EmbeddedDatabase replica;
+
+    @BeforeEach
+    void setup() {
+        primary = database("primary");
+        replica = database("replica");
+    }
+
+    @AfterEach
+    void tearDown() {
+        primary.shutdown();
+        replica.shutdown();
+    }
+
+    @Test
+    void testReadOnlyTransactionUsesReplica() {
+        DataSource routing = routing(primary, replica);
+
+        assertEquals("replica", whoAmI(routing, true));
+    }
+
+    @Test
+    void testWritesAndNonTransactionalWorkUsePrimary() {
+        DataSource routing = routing(primary, replica);
+
+        assertEquals("primary", whoAmI(routing, false));
+        assertEquals("primary", new JdbcTemplate(routing).queryForObject("SELECT name FROM db_marker", String.class));
+    }
+
+    @Test
+    void testFallsBackToPrimaryWhenReplicaIsDown() throws SQLException {
+        DataSource brokenReplica = mock(DataSource.class);
+        when(brokenReplica.getConnection()).thenThrow(new SQLException("Connection refused"));
+        DataSource routing = routing(primary, brokenReplica);
+
+        assertEquals("primary", whoAmI(routing, true));
+        assertEquals("primary", whoAmI(routing, true));
+
+        // The replica is skipped during the retry window instead of being asked again
+        verify(brokenReplica, times(1)).getConnection();
+    }
+
+    // ---------------------- HELPER METHODS ----------------------
+
+    private static EmbeddedDatabase database(String name) {
+        EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        JdbcTemplate jdbc = new JdbcTemplate(database);
+        jdbc.execute("CREATE TABLE db_marker (name VARCHAR(20))");
+        jdbc.update("INSERT INTO db_marker (name) VALUES (?)", name);
+        return database;
+    }
+
+    private static DataSource routing(DataSource primary, DataSource replica) {
+        return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primary, replica, 60_000));
+    }
+
+    private static String whoAmI(DataSource dataSource, boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status ->
+                new JdbcTemplate(dataSource).queryForObject("SELECT name FROM db_marker", String.class));
+    }
+}
@@ -0,0 +1,116 @@
+package com.softsuave.crud.feed;
+
+import com.softsuave.crud.dto.ChangeFeedEventDTO;
+import com.softsuave.crud.dto.StudentResponseDTO;
+import com.softsuave.crud.exception.FeedUnavailableException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Memory Comment: Plain unit tests for a change feed subscriber's buffer —
+ * the coalescing and dropping that happen before anything touches a socket,
+ * plus the cap on how many clients may connect.
+ */
+public class ChangeFeedBroadcasterTest {
+
+    private ChangeFeedBroadcaster.Subscriber subscriber;
+
+    @BeforeEach
+    void setup() {
+        subscriber = new ChangeFeedBroadcaster.Subscriber(new SseEmitter());
+    }
+
+    @Test
+    void testNewerChangeForTheSameStudentReplacesThePendingOne() {
+        subscriber.offer("S1", updated(1, 1L, 50F), 10);
+        subscriber.offer("S2", updated(2, 2L, 60F), 10);
+        subscriber.offer("S1", updated(3, 1L, 70F), 10);
+
+        ChangeFeedBroadcaster.Subscriber.Batch batch = subscriber.drain();
+
+        // One entry per student, in the order of their latest change
+        assertEquals(List.of(2L, 3L), sequences(batch));
+        assertEquals(70F, batch.changes().get(1).getStudent().getPercentage());
+        assertEquals(0, batch.dropped());
+    }
+
+    @Test
+    void testCreatedFollowedByUpdatedStaysCreatedWithTheNewState() {
+        subscriber.offer("S1", change(1, ChangeFeedEventDTO.STUDENT_CREATED, 1L, 50F), 10);
+        subscriber.offer("S1", updated(2, 1L, 75F), 10);
+
+        ChangeFeedEventDTO change = subscriber.drain().changes().get(0);
+
+        assertEquals(ChangeFeedEventDTO.STUDENT_CREATED, change.getType());
+        assertEquals(2, change.getSequence());
+        assertEquals(75F, change.getStudent().getPercentage());
+    }
+
+    @Test
+    void testStudentAndResumeChangesDoNotCoalesce() {
+        subscriber.offer("S1", updated(1, 1L, 50F), 10);
+        subscriber.offer("R1", new ChangeFeedEventDTO(2, ChangeFeedEventDTO.RESUME_LINKED, 1L, null, 9L, "CV"), 10);
+
+        assertEquals(List.of(1L, 2L), sequences(subscriber.drain()));
+    }
+
+    @Test
+    void testFullBufferDropsTheOldestAndCountsItForResync() {
+        assertFalse(subscriber.offer("S1", updated(1, 1L, 10F), 2));
+        assertFalse(subscriber.offer("S2", updated(2, 2L, 20F), 2));
+        assertTrue(subscriber.offer("S3", updated(3, 3L, 30F), 2));
+        assertTrue(subscriber.offer("S4", updated(4, 4L, 40F), 2));
+
+        ChangeFeedBroadcaster.Subscriber.Batch batch = subscriber.drain();
+
+        assertEquals(List.of(3L, 4L), sequences(batch));
+        assertEquals(2, batch.dropped());
+    }
+
+    @Test
+    void testDrainEmptiesTheBufferAndResetsTheDropCount() {
+        subscriber.offer("S1", updated(1, 1L, 10F), 1);
+        subscriber.offer("S2", updated(2, 2L, 20F), 1);
+        assertTrue(subscriber.hasPending());
+
+        assertEquals(1, subscriber.drain().dropped());
+
+        assertFalse(subscriber.hasPending());
+        assertTrue(subscriber.drain().isEmpty());
+    }
+
+    @Test
+    void testSubscribersPastTheLimitAreRefused() {
+        ChangeFeedBroadcaster broadcaster = new ChangeFeedBroadcaster(3600, 2, false);
+        try {
+            broadcaster.subscribe();
+            broadcaster.subscribe();
+
+            assertThrows(FeedUnavailableException.class, broadcaster::subscribe);
+            assertEquals(2, broadcaster.subscriberCount());
+        } finally {
+            broadcaster.shutdown();
+        }
+    }
+
+    private static ChangeFeedEventDTO updated(long sequence, Long studentId, float percentage) {
+        return change(sequence, ChangeFeedEventDTO.STUDENT_UPDATED, studentId, percentage);
+    }
+
+    private static ChangeFeedEventDTO change(long sequence, String type, Long studentId, float percentage) {
+        StudentResponseDTO student = new StudentResponseDTO();
+        student.setId(studentId);
+        student.setName("Student " + studentId);
+        student.setPercentage(percentage);
+        return new ChangeFeedEventDTO(sequence, type, studentId, student, null, null);
+    }
+
+    private static List<Long> sequences(ChangeFeedBroadcaster.Subscriber.Batch batch) {
+        return batch.changes().stream().map(ChangeFeedEventDTO::getSequence).toList();
+    }
+}
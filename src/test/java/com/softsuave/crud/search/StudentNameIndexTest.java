@@ -0,0 +1,116 @@
+package com.softsuave.crud.search;
+
+import com.softsuave.crud.dto.StudentResponseDTO;
+import com.softsuave.crud.dto.StudentSuggestionDTO;
+import com.softsuave.crud.event.StudentChangedEvent;
+import com.softsuave.crud.repository.StudentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Memory Comment: Plain unit tests for the in-memory trigram index.
+ * No Spring context and no database — we call put/remove/suggest directly
+ * (the rebuild test hands it a mocked repository).
+ */
+public class StudentNameIndexTest {
+
+    private StudentNameIndex index;
+
+    @BeforeEach
+    void setup() {
+        index = new StudentNameIndex();
+        index.put(1L, "Ravi Kumar");
+        index.put(2L, "Kavya Reddy");
+        index.put(3L, "Chaithu");
+    }
+
+    @Test
+    void testSubstringMatch() {
+        List<StudentSuggestionDTO> result = index.suggest("avi", 10);
+
+        assertEquals(1, result.size());
+        assertEquals(1L, result.get(0).getId());
+    }
+
+    @Test
+    void testShortQueryMatchesWordStart() {
+        // "ku" starts the word "Kumar" but is only inside "Kavya" as "k..." — not "ku"
+        List<StudentSuggestionDTO> result = index.suggest("Ku", 10);
+
+        assertEquals(List.of(1L), result.stream().map(StudentSuggestionDTO::getId).toList());
+    }
+
+    @Test
+    void testPrefixMatchesRankFirst() {
+        index.put(4L, "Avinash");
+
+        List<StudentSuggestionDTO> result = index.suggest("avi", 10);
+
+        assertEquals(4L, result.get(0).getId()); // "avinash" starts with the query
+        assertEquals(1L, result.get(1).getId());
+    }
+
+    @Test
+    void testUpdateAndRemove() {
+        index.put(3L, "Cherry");
+        assertTrue(index.suggest("chai", 10).isEmpty());
+        assertEquals(3L, index.suggest("cher", 10).get(0).getId());
+
+        index.remove(3L);
+        assertTrue(index.suggest("cher", 10).isEmpty());
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void testLimit() {
+        for (long id = 10; id < 30; id++) {
+            index.put(id, "Student " + id);
+        }
+        assertEquals(5, index.suggest("stu", 5).size());
+    }
+
+    @Test
+    void testChangesDuringRebuildWinOverTheStreamedRows() {
+        StudentRepository studentRepo = mock(StudentRepository.class);
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        doAnswer(invocation -> {
+            invocation.<Consumer<Object>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        ReflectionTestUtils.setField(index, "studentRepo", studentRepo);
+        ReflectionTestUtils.setField(index, "transactionTemplate", transactionTemplate);
+
+        // Rows 1 and 2 are read with their old state, but each one's update / delete
+        // commits (and its event arrives) before the streamed row is put
+        when(studentRepo.streamAllSummaries()).thenReturn(Stream.of(student(1L, "Ravi Kumar"), student(2L, "Kavya Reddy"))
+                .peek(row -> index.onStudentChanged(row.getId() == 1L
+                        ? StudentChangedEvent.updated(student(1L, "Rahul Verma"))
+                        : StudentChangedEvent.deleted(2L))));
+
+        index.rebuild();
+
+        assertTrue(index.suggest("ravi", 10).isEmpty());
+        assertEquals(1L, index.suggest("rahul", 10).get(0).getId());
+        assertTrue(index.suggest("kavya", 10).isEmpty());
+        // ...and once the rebuild is over, events apply straight away again
+        index.onStudentChanged(StudentChangedEvent.created(student(4L, "Deepa")));
+        assertEquals(4L, index.suggest("deepa", 10).get(0).getId());
+    }
+
+    private static StudentResponseDTO student(Long id, String name) {
+        StudentResponseDTO dto = new StudentResponseDTO();
+        dto.setId(id);
+        dto.setName(name);
+        return dto;
+    }
+}
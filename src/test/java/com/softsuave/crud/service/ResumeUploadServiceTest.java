@@ -0,0 +1,290 @@
+package com.softsuave.crud.service;
+
+import com.softsuave.crud.dto.ResumeUploadDTO;
+import com.softsuave.crud.dto.ResumeUploadRequestDTO;
+import com.softsuave.crud.entity.ResumeUpload;
+import com.softsuave.crud.exception.InvalidRequestException;
+import com.softsuave.crud.exception.ResumeNotFoundException;
+import com.softsuave.crud.exception.UploadChecksumMismatchException;
+import com.softsuave.crud.exception.UploadConflictException;
+import com.softsuave.crud.repository.ResumeUploadRepository;
+import com.softsuave.crud.repository.StudentRepository;
+import com.softsuave.crud.storage.ResumeBlobStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Memory Comment: UNIT TEST for the resumable upload service.
+ *
+ * The repository is backed by a plain map and the blob store only supplies
+ * the temp directory and (small) buffers, so chunks really are written to a
+ * file on disk and we can check exactly which bytes and offset survive each
+ * failure: wrong offset, bad checksum, dropped connection, too many bytes.
+ */
+@ExtendWith(MockitoExtension.class)
+public class ResumeUploadServiceTest {
+
+    private static final String USER = "ravi";
+
+    @Mock
+    private ResumeUploadRepository uploadRepo;
+
+    @Mock
+    private StudentRepository studentRepo;
+
+    @Mock
+    private ResumeService resumeService;
+
+    @Mock
+    private ResumeBlobStore resumeBlobStore;
+
+    @InjectMocks
+    private ResumeUploadService resumeUploadService;
+
+    @TempDir
+    Path tempDir;
+
+    // The "database"
+    private final Map<String, ResumeUpload> uploads = new HashMap<>();
+
+    @BeforeEach
+    void setup() throws IOException {
+        ReflectionTestUtils.setField(resumeUploadService, "maxLength", DataSize.ofMegabytes(1));
+        ReflectionTestUtils.setField(resumeUploadService, "expireAfter", Duration.ofHours(24));
+        when(resumeBlobStore.tempDirectory()).thenReturn(tempDir);
+        resumeUploadService.init();
+
+        lenient().when(studentRepo.existsById(1L)).thenReturn(true);
+        lenient().when(uploadRepo.save(any(ResumeUpload.class))).thenAnswer(invocation -> {
+            ResumeUpload upload = invocation.getArgument(0);
+            uploads.put(upload.getId(), upload);
+            return upload;
+        });
+        lenient().when(uploadRepo.findById(anyString()))
+                .thenAnswer(invocation -> Optional.ofNullable(uploads.get(invocation.<String>getArgument(0))));
+        lenient().doAnswer(invocation -> uploads.remove(invocation.<ResumeUpload>getArgument(0).getId()))
+                .when(uploadRepo).delete(any(ResumeUpload.class));
+        // Tiny buffers, so every chunk takes several reads
+        lenient().when(resumeBlobStore.borrowBuffer()).thenAnswer(invocation -> ByteBuffer.allocate(4));
+    }
+
+    @Test
+    void testChunksAreAppendedAtTheConfirmedOffset() throws IOException {
+        String id = createUpload(10);
+
+        assertEquals(6, append(id, 0, null, "hello ").getOffset());
+        assertEquals(10, append(id, 6, null, "ravi").getOffset());
+
+        assertEquals("hello ravi", Files.readString(partFile(id)));
+        assertEquals(10, resumeUploadService.status(USER, id).getOffset());
+        verify(resumeBlobStore, times(2)).returnBuffer(any(ByteBuffer.class)); // pooled, not leaked
+    }
+
+    @Test
+    void testWrongOffsetIsAConflictAndWritesNothing() throws IOException {
+        String id = createUpload(10);
+        append(id, 0, null, "hello");
+
+        assertThrows(UploadConflictException.class, () -> append(id, 3, null, "xx"));
+
+        assertEquals(5, resumeUploadService.status(USER, id).getOffset());
+        assertEquals("hello", Files.readString(partFile(id)));
+        verify(resumeBlobStore, times(1)).borrowBuffer(); // rejected before any buffer was taken
+    }
+
+    @Test
+    void testChecksumMismatchThrowsTheChunkAway() throws Exception {
+        String id = createUpload(10);
+        append(id, 0, null, "hello");
+
+        assertThrows(UploadChecksumMismatchException.class,
+                () -> append(id, 5, "sha256 " + sha256("other"), " ravi"));
+
+        // Offset unchanged and the file truncated back to it
+        assertEquals(5, resumeUploadService.status(USER, id).getOffset());
+        assertEquals("hello", Files.readString(partFile(id)));
+        verify(resumeBlobStore, times(2)).returnBuffer(any(ByteBuffer.class));
+    }
+
+    @Test
+    void testMatchingChecksumIsAccepted() throws Exception {
+        String id = createUpload(5);
+
+        assertEquals(5, append(id, 0, "sha256 " + sha256("hello"), "hello").getOffset());
+    }
+
+    @Test
+    void testUnsupportedChecksumAlgorithmIsRejected() {
+        String id = createUpload(5);
+
+        assertThrows(InvalidRequestException.class, () -> append(id, 0, "crc32 AAAA", "hello"));
+        assertEquals(0, resumeUploadService.status(USER, id).getOffset());
+    }
+
+    @Test
+    void testDroppedConnectionKeepsTheBytesThatArrived() throws IOException {
+        String id = createUpload(20);
+
+        assertThrows(UncheckedIOException.class,
+                () -> resumeUploadService.appendChunk(USER, id, 0, null, dropsAfter("hello ravi")));
+
+        // Without a checksum what did arrive is good: the client resumes after it
+        assertEquals(10, resumeUploadService.status(USER, id).getOffset());
+        assertEquals("hello ravi", Files.readString(partFile(id)));
+        verify(resumeBlobStore).returnBuffer(any(ByteBuffer.class));
+    }
+
+    @Test
+    void testDroppedConnectionWithChecksumKeepsNothing() throws Exception {
+        String id = createUpload(20);
+
+        assertThrows(UncheckedIOException.class, () -> resumeUploadService.appendChunk(USER, id, 0,
+                "sha256 " + sha256("hello ravi kumar"), dropsAfter("hello ravi")));
+
+        // A partial chunk cannot be checked, so the offset stays where it was
+        assertEquals(0, resumeUploadService.status(USER, id).getOffset());
+
+        // ...and the leftover bytes are dropped by the next chunk
+        append(id, 0, null, "hi");
+        assertEquals("hi", Files.readString(partFile(id)));
+    }
+
+    @Test
+    void testChunkPastTheDeclaredLengthIsRejected() {
+        String id = createUpload(5);
+
+        assertThrows(InvalidRequestException.class, () -> append(id, 0, null, "hello ravi"));
+
+        assertEquals(0, resumeUploadService.status(USER, id).getOffset());
+        verify(resumeBlobStore).returnBuffer(any(ByteBuffer.class));
+    }
+
+    @Test
+    void testFinishRefusesAnIncompleteUpload() {
+        String id = createUpload(10);
+        append(id, 0, null, "hello");
+
+        assertThrows(UploadConflictException.class, () -> resumeUploadService.finish(USER, id));
+        verifyNoInteractions(resumeService);
+    }
+
+    @Test
+    void testOtherUsersCannotSeeAnUpload() {
+        String id = createUpload(5);
+
+        assertThrows(ResumeNotFoundException.class, () -> resumeUploadService.status("someone-else", id));
+        assertThrows(ResumeNotFoundException.class,
+                () -> resumeUploadService.appendChunk("someone-else", id, 0, null, stream("hello")));
+    }
+
+    @Test
+    void testExpiredUploadsAreGoneAndCleanedUp() {
+        String id = createUpload(10);
+        append(id, 0, null, "hello");
+        ResumeUpload upload = uploads.get(id);
+        upload.setExpiresAt(Instant.now().minusSeconds(1));
+
+        // An expired upload can no longer be resumed...
+        assertThrows(ResumeNotFoundException.class, () -> resumeUploadService.status(USER, id));
+
+        // ...and the sweep deletes its row and its file
+        when(uploadRepo.findByExpiresAtBefore(any(Instant.class))).thenReturn(List.of(upload));
+        resumeUploadService.expireUploads();
+
+        assertFalse(uploads.containsKey(id));
+        assertFalse(Files.exists(partFile(id)));
+    }
+
+    @Test
+    void testEveryChunkPushesTheExpiryOut() {
+        String id = createUpload(10);
+        Instant soon = Instant.now().plusSeconds(60);
+        uploads.get(id).setExpiresAt(soon);
+
+        append(id, 0, null, "hello");
+
+        assertTrue(uploads.get(id).getExpiresAt().isAfter(soon));
+    }
+
+    // ---------------------- HELPER METHODS ----------------------
+
+    private String createUpload(long length) {
+        ResumeUploadRequestDTO request = new ResumeUploadRequestDTO();
+        request.setStudentId(1L);
+        request.setTitle("CV");
+        request.setFileName("cv.pdf");
+        request.setLength(length);
+        return resumeUploadService.create(USER, request).getId();
+    }
+
+    private ResumeUploadDTO append(String id, long offset, String checksum, String body) {
+        return resumeUploadService.appendChunk(USER, id, offset, checksum, stream(body));
+    }
+
+    private Path partFile(String id) {
+        return tempDir.resolve("resumable").resolve(id + ".part");
+    }
+
+    private static InputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Gives 'body', then fails like a connection reset would
+    private static InputStream dropsAfter(String body) {
+        return new InputStream() {
+            private final InputStream in = stream(body);
+
+            @Override
+            public int read() throws IOException {
+                int c = in.read();
+                if (c == -1) {
+                    throw new IOException("Connection reset");
+                }
+                return c;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                int n = in.read(b, off, len);
+                if (n == -1) {
+                    throw new IOException("Connection reset");
+                }
+                return n;
+            }
+        };
+    }
+
+    private static String sha256(String text) throws Exception {
+        byte[] digest = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+        return Base64.getEncoder().encodeToString(digest);
+    }
+}
@@ -0,0 +1,45 @@
+package com.softsuave.crud.service;
+
+import com.softsuave.crud.dto.StudentRequestDTO;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Memory Comment: Unit tests for the per-item validation shared by
+ * POST /students/batch and the CSV import. A row that slips through here
+ * fails in MySQL instead, and takes its whole insert chunk down with it.
+ */
+public class StudentBatchServiceTest {
+
+    private final StudentBatchService studentBatchService = new StudentBatchService();
+
+    @Test
+    void testValidStudentPasses() {
+        assertNull(studentBatchService.validate(student("Ravi", 81.5F)));
+    }
+
+    @Test
+    void testMissingNameAndOutOfRangePercentageAreRejected() {
+        assertEquals("Item is empty", studentBatchService.validate(null));
+        assertEquals("Name is required", studentBatchService.validate(student(" ", 50F)));
+        assertNotNull(studentBatchService.validate(student("Ravi", -1F)));
+        assertNotNull(studentBatchService.validate(student("Ravi", 100.5F)));
+    }
+
+    @Test
+    void testNonFinitePercentageIsRejected() {
+        // What the CSV import gets from Float.parseFloat("NaN") / ("Infinity")
+        assertNotNull(studentBatchService.validate(student("Ravi", Float.parseFloat("NaN"))));
+        assertNotNull(studentBatchService.validate(student("Ravi", Float.parseFloat("Infinity"))));
+        assertNotNull(studentBatchService.validate(student("Ravi", Float.NEGATIVE_INFINITY)));
+    }
+
+    private static StudentRequestDTO student(String name, float percentage) {
+        StudentRequestDTO request = new StudentRequestDTO();
+        request.setName(name);
+        request.setBranch("CSE");
+        request.setPercentage(percentage);
+        return request;
+    }
+}
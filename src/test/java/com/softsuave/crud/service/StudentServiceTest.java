@@ -1,8 +1,12 @@
 package com.softsuave.crud.service;
 
+import com.softsuave.crud.dto.StudentPageResponseDTO;
 import com.softsuave.crud.dto.StudentRequestDTO;
 import com.softsuave.crud.dto.StudentResponseDTO;
 import com.softsuave.crud.entity.Student;
+import com.softsuave.crud.event.StudentChangedEvent;
+import com.softsuave.crud.exception.InvalidRequestException;
+import com.softsuave.crud.exception.PreconditionFailedException;
 import com.softsuave.crud.exception.StudentNotFoundException; // Assuming you have this
 import com.softsuave.crud.repository.StudentRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -11,7 +15,11 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -32,6 +40,12 @@ public class StudentServiceTest {
     @Mock
     private StudentRepository studentRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private StudentSyncService studentSyncService;
+
     @InjectMocks
     private StudentService studentService;
 
@@ -63,29 +77,90 @@ public class StudentServiceTest {
     }
 
     @Test
-    void testGetAllStudents() {
+    void testGetStudentsPage_FirstPage() {
         // 1. Arrange: Teach the mock repository what to return.
-        //    The repository always returns ENTITIES.
-        when(studentRepository.findAll()).thenReturn(List.of(studentEntity));
+        //    The service asks for size + 1 rows to detect a next page.
+        //    Listing queries return DTO projections, not entities.
+        when(studentRepository.findFirstPageOrderById(PageRequest.of(0, 21)))
+                .thenReturn(List.of(studentResponseDTO));
 
-        // 2. Act: Call the service method, which should return DTOs.
-        List<StudentResponseDTO> studentDTOs = studentService.getAllStudents();
+        // 2. Act: Call the service method, which should return a page of DTOs.
+        StudentPageResponseDTO page = studentService.getStudentsPage(null, null, null);
 
         // 3. Assert: Check the DTOs that the service returned.
-        assertNotNull(studentDTOs);
-        assertEquals(1, studentDTOs.size());
-        assertEquals("Chaithu", studentDTOs.get(0).getName());
-        assertEquals(80.5F, studentDTOs.get(0).getPercentage());
+        assertNotNull(page);
+        assertEquals(1, page.getSize());
+        assertEquals("Chaithu", page.getContent().get(0).getName());
+        assertEquals(80.5F, page.getContent().get(0).getPercentage());
+        assertNull(page.getNextCursor()); // Only one row, so no next page
+
+        // 4. Verify: Make sure the keyset query was called exactly once.
+        verify(studentRepository, times(1)).findFirstPageOrderById(PageRequest.of(0, 21));
+        verify(studentRepository, never()).findAll();
+    }
+
+    @Test
+    void testGetStudentsPage_CursorRoundTrip() {
+        // 1. Arrange: Two rows come back for a page size of 1 → there is a next page.
+        studentResponseDTO.setId(1L);
+        StudentResponseDTO second = new StudentResponseDTO();
+        second.setId(2L);
+        second.setBranch("ECE");
+        when(studentRepository.findFirstPageOrderByBranch(PageRequest.of(0, 2)))
+                .thenReturn(List.of(studentResponseDTO, second));
+        when(studentRepository.findPageAfterBranch("CSE", 1L, PageRequest.of(0, 2)))
+                .thenReturn(List.of(second));
+
+        // 2. Act: Fetch the first page, then follow its cursor.
+        StudentPageResponseDTO first = studentService.getStudentsPage(1, null, "branch");
+        StudentPageResponseDTO next = studentService.getStudentsPage(1, first.getNextCursor(), "branch");
+
+        // 3. Assert
+        assertEquals(1, first.getSize());
+        assertNotNull(first.getNextCursor());
+        assertEquals(2L, next.getContent().get(0).getId());
+        assertNull(next.getNextCursor());
+    }
+
+    @Test
+    void testGetStudentsPage_PercentageCursorKeepsTheExactStoredValue() {
+        // 1. Arrange: 75.3 has no exact float; the column holds 75.30000305...
+        studentResponseDTO.setId(1L);
+        studentResponseDTO.setPercentage(75.3F);
+        StudentResponseDTO second = new StudentResponseDTO();
+        second.setId(2L);
+        when(studentRepository.findFirstPageOrderByPercentage(PageRequest.of(0, 2)))
+                .thenReturn(List.of(studentResponseDTO, second));
+
+        // 2. Act: Fetch the first page, then follow its cursor.
+        StudentPageResponseDTO first = studentService.getStudentsPage(1, null, "percentage");
+        studentService.getStudentsPage(1, first.getNextCursor(), "percentage");
+
+        // 3. Assert: the seek uses the float's own value, not the decimal 75.3
+        verify(studentRepository).findPageAfterPercentage((double) 75.3F, 1L, PageRequest.of(0, 2));
+    }
 
-        // 4. Verify: Make sure the findAll() method was called exactly once.
-        verify(studentRepository, times(1)).findAll();
+    @Test
+    void testGetStudentsPage_InvalidCursor() {
+        // A cursor the server never issued must be rejected, not guessed at.
+        assertThrows(InvalidRequestException.class,
+                () -> studentService.getStudentsPage(10, "not-a-cursor", "id"));
+    }
+
+    @Test
+    void testSearchStudents_InvalidRange() {
+        // A range where min > max can never match; reject it before querying.
+        assertThrows(InvalidRequestException.class,
+                () -> studentService.searchStudents("CSE", 90F, 60F, null, null));
+
+        verifyNoInteractions(studentRepository);
     }
 
     @Test
     void testGetStudentById_Found() {
-        // 1. Arrange: Teach the repository to return our sample ENTITY
-        //    when findById(1L) is called.
-        when(studentRepository.findById(1L)).thenReturn(Optional.of(studentEntity));
+        // 1. Arrange: Teach the repository to return our sample DTO projection
+        //    when findSummaryById(1L) is called.
+        when(studentRepository.findSummaryById(1L)).thenReturn(Optional.of(studentResponseDTO));
 
         // 2. Act: Call the service method, which should return a DTO.
         StudentResponseDTO foundDTO = studentService.getStudentById(1L);
@@ -94,14 +169,16 @@ public class StudentServiceTest {
         assertNotNull(foundDTO);
         assertEquals("Chaithu", foundDTO.getName());
 
-        // 4. Verify: Make sure findById(1L) was called.
-        verify(studentRepository, times(1)).findById(1L);
+        // 4. Verify: Make sure the projection was used and the full entity
+        //    (with its resume) was never loaded.
+        verify(studentRepository, times(1)).findSummaryById(1L);
+        verify(studentRepository, never()).findById(any());
     }
 
     @Test
     void testGetStudentById_NotFound() {
         // 1. Arrange: Teach the repository to return an empty Optional.
-        when(studentRepository.findById(99L)).thenReturn(Optional.empty());
+        when(studentRepository.findSummaryById(99L)).thenReturn(Optional.empty());
 
         // 2. Act & 3. Assert:
         //    We assert that calling the service method *throws* the
@@ -111,8 +188,8 @@ public class StudentServiceTest {
             studentService.getStudentById(99L);
         });
 
-        // 4. Verify: Make sure findById(99L) was called.
-        verify(studentRepository, times(1)).findById(99L);
+        // 4. Verify: Make sure findSummaryById(99L) was called.
+        verify(studentRepository, times(1)).findSummaryById(99L);
     }
 
     @Test
@@ -138,8 +215,9 @@ public class StudentServiceTest {
         assertEquals("New Student", savedDTO.getName());
         assertEquals("IT", savedDTO.getBranch());
 
-        // 4. Verify: Make sure save() was called.
+        // 4. Verify: Make sure save() was called and the change was announced.
         verify(studentRepository, times(1)).save(any(Student.class));
+        verify(eventPublisher, times(1)).publishEvent(any(StudentChangedEvent.class));
     }
 
     @Test
@@ -159,7 +237,7 @@ public class StudentServiceTest {
                 .thenAnswer(invocation -> invocation.getArgument(0));
 
         // 2. Act: Call the service to perform the update.
-        StudentResponseDTO updatedDTO = studentService.updateStudent(1L, updateDTO);
+        StudentResponseDTO updatedDTO = studentService.updateStudent(1L, updateDTO, null);
 
         // 3. Assert: Check that the returned DTO has the updated info.
         assertNotNull(updatedDTO);
@@ -185,20 +263,60 @@ public class StudentServiceTest {
         // 2. Act & 3. Assert:
         //    Check that the service throws an exception.
         assertThrows(StudentNotFoundException.class, () -> {
-            studentService.updateStudent(99L, updateDTO);
+            studentService.updateStudent(99L, updateDTO, null);
         });
 
         // 4. Verify:
         //    Check that findById was called, but 'save' was *never* called.
         verify(studentRepository, times(1)).findById(99L);
         verify(studentRepository, never()).save(any(Student.class));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void testUpdateStudent_StaleIfMatch() {
+        // 1. Arrange: The stored row is at version 3, the client read version 2.
+        studentEntity.setVersion(3L);
+        when(studentRepository.findById(1L)).thenReturn(Optional.of(studentEntity));
+
+        // 2. Act & 3. Assert: The update must be refused before anything is saved.
+        assertThrows(PreconditionFailedException.class,
+                () -> studentService.updateStudent(1L, new StudentRequestDTO(), "\"1-2\""));
+
+        // 4. Verify
+        verify(studentRepository, never()).save(any(Student.class));
+    }
+
+    @Test
+    void testPatchStudent_UpdatesOnlyGivenColumns() {
+        // 1. Arrange: The targeted UPDATE hits one row, then we read back the summary.
+        studentResponseDTO.setBranch("ECE");
+        when(studentRepository.updateColumns(1L, Map.of("branch", "ECE"), null)).thenReturn(1);
+        when(studentRepository.findSummaryById(1L)).thenReturn(Optional.of(studentResponseDTO));
+
+        // 2. Act
+        StudentResponseDTO patched = studentService.patchStudent(1L, Map.of("branch", "ECE"), null);
+
+        // 3. Assert
+        assertEquals("ECE", patched.getBranch());
+
+        // 4. Verify: No full entity load and no full-row save.
+        verify(studentRepository, never()).findById(any());
+        verify(studentRepository, never()).save(any(Student.class));
+    }
+
+    @Test
+    void testPatchStudent_UnknownField() {
+        assertThrows(InvalidRequestException.class,
+                () -> studentService.patchStudent(1L, Map.of("resume", "x"), null));
+
+        verifyNoInteractions(studentRepository);
     }
 
     @Test
     void testDeleteStudent() {
         // 1. Arrange
-        //    'deleteById' returns 'void', so we use 'doNothing()'.
-        doNothing().when(studentRepository).deleteById(1L);
+        when(studentRepository.findById(1L)).thenReturn(Optional.of(studentEntity));
 
         // 2. Act
         String result = studentService.deleteStudent(1L);
@@ -207,7 +325,20 @@ public class StudentServiceTest {
         assertEquals("Deleted", result); // Check for the hardcoded string.
 
         // 4. Verify
-        verify(studentRepository, times(1)).deleteById(1L);
+        verify(studentRepository, times(1)).delete(studentEntity);
+        verify(studentSyncService, times(1)).recordDeletes(List.of(1L)); // tombstone for delta sync
+        verify(eventPublisher).publishEvent(any(StudentChangedEvent.class));
+    }
+
+    @Test
+    void testDeleteStudent_NotFound() {
+        when(studentRepository.findById(99L)).thenReturn(Optional.empty());
+
+        assertEquals("Student not found", studentService.deleteStudent(99L));
+
+        // No tombstone for an id that never existed: it would hide a later real delete
+        verify(studentRepository, never()).delete(any(Student.class));
+        verifyNoInteractions(studentSyncService, eventPublisher);
     }
 }
 
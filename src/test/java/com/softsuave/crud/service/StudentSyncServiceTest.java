@@ -0,0 +1,162 @@
+package com.softsuave.crud.service;
+
+import com.softsuave.crud.dto.StudentChangeDTO;
+import com.softsuave.crud.dto.StudentChangesResponseDTO;
+import com.softsuave.crud.dto.StudentResponseDTO;
+import com.softsuave.crud.entity.StudentTombstone;
+import com.softsuave.crud.exception.InvalidRequestException;
+import com.softsuave.crud.repository.StudentRepository;
+import com.softsuave.crud.repository.StudentTombstoneRepository;
+import com.softsuave.crud.sync.ChangeSequence;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Memory Comment: UNIT TEST for GET /students/changes.
+ *
+ * The repositories are mocked to return the two sorted streams (upserts and
+ * tombstones); these tests check how StudentSyncService merges them, when it
+ * says there is more, and which watermark it hands back to the client.
+ */
+@ExtendWith(MockitoExtension.class)
+public class StudentSyncServiceTest {
+
+    @Mock
+    private StudentRepository studentRepo;
+
+    @Mock
+    private StudentTombstoneRepository tombstoneRepo;
+
+    @Mock
+    private ChangeSequence changeSequence;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @InjectMocks
+    private StudentSyncService studentSyncService;
+
+    @Test
+    void testUpsertsAndTombstonesAreMergedInChangeSeqOrder() {
+        when(changeSequence.safeWatermark()).thenReturn(10L);
+        when(studentRepo.findChangesBetween(0, 10, PageRequest.of(0, 11))).thenReturn(upserts(1, 3, 6));
+        when(tombstoneRepo.findChangesBetween(0, 10, PageRequest.of(0, 11))).thenReturn(tombstones(2, 4, 5));
+
+        StudentChangesResponseDTO response = studentSyncService.getChanges(0L, 10);
+
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L), sequences(response));
+        assertEquals(List.of(StudentChangeDTO.UPSERT, StudentChangeDTO.DELETE, StudentChangeDTO.UPSERT,
+                StudentChangeDTO.DELETE, StudentChangeDTO.DELETE, StudentChangeDTO.UPSERT),
+                response.getChanges().stream().map(StudentChangeDTO::getOp).toList());
+        assertEquals(102L, response.getChanges().get(1).getId()); // tombstone of student 100 + seq
+        assertFalse(response.isHasMore());
+        // Everything up to the safe watermark was returned, so the client can jump there
+        assertEquals(10, response.getWatermark());
+    }
+
+    @Test
+    void testFullPageEndsAtTheLastReturnedChange() {
+        when(changeSequence.safeWatermark()).thenReturn(50L);
+        // Each side returns up to size + 1 rows
+        when(studentRepo.findChangesBetween(7, 50, PageRequest.of(0, 4))).thenReturn(upserts(8, 10, 12, 13));
+        when(tombstoneRepo.findChangesBetween(7, 50, PageRequest.of(0, 4))).thenReturn(tombstones(9, 11));
+
+        StudentChangesResponseDTO response = studentSyncService.getChanges(7L, 3);
+
+        assertEquals(List.of(8L, 9L, 10L), sequences(response));
+        assertTrue(response.isHasMore());
+        // Not the safe watermark: the client must come back for 11, 12, 13
+        assertEquals(10, response.getWatermark());
+    }
+
+    @Test
+    void testPageFilledExactlyByOneSideStillReportsTheOther() {
+        when(changeSequence.safeWatermark()).thenReturn(50L);
+        when(studentRepo.findChangesBetween(0, 50, PageRequest.of(0, 3))).thenReturn(upserts(1, 2));
+        when(tombstoneRepo.findChangesBetween(0, 50, PageRequest.of(0, 3))).thenReturn(tombstones(3));
+
+        StudentChangesResponseDTO response = studentSyncService.getChanges(0L, 2);
+
+        assertEquals(List.of(1L, 2L), sequences(response));
+        assertTrue(response.isHasMore());
+        assertEquals(2, response.getWatermark());
+    }
+
+    @Test
+    void testNothingToReturnAtOrPastTheSafeWatermark() {
+        when(changeSequence.safeWatermark()).thenReturn(5L);
+
+        StudentChangesResponseDTO upToDate = studentSyncService.getChanges(5L, null);
+        assertTrue(upToDate.getChanges().isEmpty());
+        assertFalse(upToDate.isHasMore());
+        assertEquals(5, upToDate.getWatermark());
+
+        // A client ahead of the watermark (an open transaction holds it back) keeps its own
+        assertEquals(7, studentSyncService.getChanges(7L, null).getWatermark());
+
+        verifyNoInteractions(studentRepo, tombstoneRepo);
+    }
+
+    @Test
+    void testNegativeSinceIsRejected() {
+        assertThrows(InvalidRequestException.class, () -> studentSyncService.getChanges(-1L, null));
+    }
+
+    @Test
+    void testRecordDeletesLeavesATombstone() {
+        when(changeSequence.next()).thenReturn(21L);
+
+        studentSyncService.recordDeletes(List.of(4L));
+
+        verify(entityManager).persist(argThat((StudentTombstone tombstone) ->
+                tombstone.getStudentId() == 4L && tombstone.getChangeSeq() == 21L));
+    }
+
+    @Test
+    void testRecordDeletesMovesAnExistingTombstoneForward() {
+        StudentTombstone old = new StudentTombstone(4L, 3L, Instant.EPOCH);
+        when(entityManager.find(StudentTombstone.class, 4L)).thenReturn(old);
+        when(changeSequence.next()).thenReturn(22L);
+
+        studentSyncService.recordDeletes(List.of(4L));
+
+        // Clients that synced past 3 must still see this delete
+        assertEquals(22L, old.getChangeSeq());
+        assertTrue(old.getDeletedAt().isAfter(Instant.EPOCH));
+        verify(entityManager, never()).persist(any());
+    }
+
+    // ---------------------- HELPER METHODS ----------------------
+
+    private static List<StudentChangeDTO> upserts(long... sequences) {
+        return Arrays.stream(sequences).mapToObj(seq -> {
+            StudentResponseDTO student = new StudentResponseDTO();
+            student.setId(100 + seq);
+            student.setName("Student " + seq);
+            return new StudentChangeDTO(StudentChangeDTO.UPSERT, 100 + seq, seq, student);
+        }).toList();
+    }
+
+    private static List<StudentTombstone> tombstones(long... sequences) {
+        return Arrays.stream(sequences)
+                .mapToObj(seq -> new StudentTombstone(100 + seq, seq, Instant.now()))
+                .toList();
+    }
+
+    private static List<Long> sequences(StudentChangesResponseDTO response) {
+        return response.getChanges().stream().map(StudentChangeDTO::getChangeSeq).toList();
+    }
+}
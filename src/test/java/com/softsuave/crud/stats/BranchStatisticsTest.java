@@ -0,0 +1,112 @@
+package com.softsuave.crud.stats;
+
+import com.softsuave.crud.dto.BranchStatsDTO;
+import com.softsuave.crud.dto.StudentResponseDTO;
+import com.softsuave.crud.event.StudentChangedEvent;
+import com.softsuave.crud.repository.StudentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Memory Comment: Plain unit tests for the in-memory branch statistics.
+ * We feed students in directly with put/remove — no Spring, no database
+ * (the rebuild test hands it a mocked repository).
+ */
+public class BranchStatisticsTest {
+
+    private BranchStatistics statistics;
+
+    @BeforeEach
+    void setup() {
+        statistics = new BranchStatistics();
+        statistics.put(1L, "CSE", 60F);
+        statistics.put(2L, "CSE", 80F);
+        statistics.put(3L, "CSE", 100F);
+        statistics.put(4L, "ECE", 70.25F);
+    }
+
+    @Test
+    void testPerBranchAggregates() {
+        BranchStatsDTO cse = statistics.forBranch("CSE");
+
+        assertEquals(3, cse.getCount());
+        assertEquals(80.0, cse.getMean(), 0.001);
+        assertEquals(60.0, cse.getMin(), 0.001);
+        assertEquals(100.0, cse.getMax(), 0.001);
+        assertEquals(80.0, cse.getP50(), 0.001);
+    }
+
+    @Test
+    void testAllRowMergesBranches() {
+        List<BranchStatsDTO> snapshot = statistics.snapshot();
+        BranchStatsDTO all = snapshot.get(snapshot.size() - 1);
+
+        assertEquals(BranchStatistics.ALL_BRANCHES, all.getBranch());
+        assertEquals(4, all.getCount());
+        assertEquals(60.0, all.getMin(), 0.001);
+        assertEquals(70.25, statistics.forBranch("ECE").getMax(), 0.001);
+    }
+
+    @Test
+    void testUpdateMovesStudentBetweenBranches() {
+        // Student 3 moves from CSE to ECE with a new percentage
+        statistics.put(3L, "ECE", 90F);
+
+        assertEquals(2, statistics.forBranch("CSE").getCount());
+        assertEquals(80.0, statistics.forBranch("CSE").getMax(), 0.001);
+        assertEquals(2, statistics.forBranch("ECE").getCount());
+    }
+
+    @Test
+    void testRemoveDropsEmptyBranch() {
+        statistics.remove(4L);
+
+        assertNull(statistics.forBranch("ECE"));
+        assertEquals(3, statistics.size());
+    }
+
+    @Test
+    void testChangesDuringRebuildAreNotUndoneOrCountedTwice() {
+        StudentRepository studentRepo = mock(StudentRepository.class);
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        doAnswer(invocation -> {
+            invocation.<Consumer<Object>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        BranchStatistics rebuilt = new BranchStatistics();
+        ReflectionTestUtils.setField(rebuilt, "studentRepo", studentRepo);
+        ReflectionTestUtils.setField(rebuilt, "transactionTemplate", transactionTemplate);
+
+        // Student 1 moves to ECE and student 2 is deleted after their rows were read,
+        // but before the streamed (old) rows are put
+        when(studentRepo.streamAllSummaries()).thenReturn(Stream.of(student(1L, "CSE", 60F), student(2L, "CSE", 80F))
+                .peek(row -> rebuilt.onStudentChanged(row.getId() == 1L
+                        ? StudentChangedEvent.updated(student(1L, "ECE", 90F))
+                        : StudentChangedEvent.deleted(2L))));
+
+        rebuilt.rebuild();
+
+        assertNull(rebuilt.forBranch("CSE"));
+        assertEquals(1, rebuilt.forBranch("ECE").getCount());
+        assertEquals(90.0, rebuilt.forBranch("ECE").getMax(), 0.001);
+        assertEquals(1, rebuilt.size());
+    }
+
+    private static StudentResponseDTO student(Long id, String branch, float percentage) {
+        StudentResponseDTO dto = new StudentResponseDTO();
+        dto.setId(id);
+        dto.setBranch(branch);
+        dto.setPercentage(percentage);
+        return dto;
+    }
+}
@@ -0,0 +1,111 @@
+package com.softsuave.crud.stats;
+
+import com.softsuave.crud.dto.LeaderboardEntryDTO;
+import com.softsuave.crud.dto.StudentRankDTO;
+import com.softsuave.crud.dto.StudentResponseDTO;
+import com.softsuave.crud.event.StudentChangedEvent;
+import com.softsuave.crud.repository.StudentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Memory Comment: Plain unit tests for the in-memory leaderboard.
+ */
+public class PercentageLeaderboardTest {
+
+    private PercentageLeaderboard leaderboard;
+
+    @BeforeEach
+    void setup() {
+        leaderboard = new PercentageLeaderboard();
+        leaderboard.put(student(1L, "CSE", 75F));
+        leaderboard.put(student(2L, "CSE", 92.5F));
+        leaderboard.put(student(3L, "ECE", 92.5F));
+        leaderboard.put(student(4L, "ECE", 60F));
+    }
+
+    @Test
+    void testTopOverallOrdersByPercentageThenId() {
+        List<LeaderboardEntryDTO> top = leaderboard.top(3, null);
+
+        assertEquals(List.of(2L, 3L, 1L), top.stream().map(LeaderboardEntryDTO::getId).toList());
+        assertEquals(1, top.get(0).getRank());
+    }
+
+    @Test
+    void testTopWithinBranch() {
+        List<LeaderboardEntryDTO> top = leaderboard.top(10, "ECE");
+
+        assertEquals(List.of(3L, 4L), top.stream().map(LeaderboardEntryDTO::getId).toList());
+    }
+
+    @Test
+    void testRankOf() {
+        StudentRankDTO rank = leaderboard.rankOf(3L);
+
+        assertEquals(2, rank.getOverallRank()); // tied with id 2, which has the lower id
+        assertEquals(4, rank.getOverallCount());
+        assertEquals(1, rank.getBranchRank());
+        assertEquals(2, rank.getBranchCount());
+    }
+
+    @Test
+    void testUpdateAndRemoveKeepRanksInSync() {
+        leaderboard.put(student(4L, "ECE", 99F));
+        assertEquals(1, leaderboard.rankOf(4L).getOverallRank());
+
+        leaderboard.remove(4L);
+        assertNull(leaderboard.rankOf(4L));
+        assertEquals(1, leaderboard.rankOf(3L).getBranchRank());
+        assertEquals(3, leaderboard.rankOf(1L).getOverallRank());
+        assertEquals(3, leaderboard.rankOf(1L).getOverallCount());
+        assertEquals(1, leaderboard.rankOf(3L).getBranchCount());
+    }
+
+    @Test
+    void testChangesDuringRebuildWinOverTheStreamedRows() {
+        StudentRepository studentRepo = mock(StudentRepository.class);
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        doAnswer(invocation -> {
+            invocation.<Consumer<Object>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        PercentageLeaderboard rebuilt = new PercentageLeaderboard();
+        ReflectionTestUtils.setField(rebuilt, "studentRepo", studentRepo);
+        ReflectionTestUtils.setField(rebuilt, "transactionTemplate", transactionTemplate);
+
+        // Student 1 improves and student 2 is deleted after their rows were read,
+        // but before the streamed (old) rows are put
+        when(studentRepo.streamAllSummaries()).thenReturn(Stream.of(student(1L, "CSE", 50F), student(2L, "CSE", 80F))
+                .peek(row -> rebuilt.onStudentChanged(row.getId() == 1L
+                        ? StudentChangedEvent.updated(student(1L, "CSE", 95F))
+                        : StudentChangedEvent.deleted(2L))));
+
+        rebuilt.rebuild();
+
+        assertNull(rebuilt.rankOf(2L));
+        StudentRankDTO rank = rebuilt.rankOf(1L);
+        assertEquals(95F, rank.getPercentage());
+        assertEquals(1, rank.getOverallRank());
+        assertEquals(1, rank.getOverallCount());
+    }
+
+    private static StudentResponseDTO student(Long id, String branch, float percentage) {
+        StudentResponseDTO dto = new StudentResponseDTO();
+        dto.setId(id);
+        dto.setName("Student " + id);
+        dto.setBranch(branch);
+        dto.setPercentage(percentage);
+        return dto;
+    }
+}
@@ -0,0 +1,56 @@
+package com.softsuave.crud.storage;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Memory Comment: The gzip files written by the blob store must be readable
+ * by any gzip reader (browsers get them as-is with Content-Encoding: gzip).
+ */
+public class GzipChannelWriterTest {
+
+    @Test
+    void testOutputIsValidGzip() throws IOException {
+        byte[] original = "Ravi Kumar, CSE, 81.5\n".repeat(5000).getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+
+        try (GzipChannelWriter gzip = new GzipChannelWriter(Channels.newChannel(compressed), 6, 1024)) {
+            // Fed in direct-buffer chunks, the way ResumeBlobStore.store() does
+            ByteBuffer chunk = ByteBuffer.allocateDirect(4096);
+            for (int offset = 0; offset < original.length; offset += chunk.capacity()) {
+                chunk.clear();
+                chunk.put(original, offset, Math.min(chunk.capacity(), original.length - offset));
+                chunk.flip();
+                gzip.write(chunk);
+                assertEquals(0, chunk.position()); // the caller still writes the same bytes to the raw file
+            }
+            gzip.finish();
+
+            assertEquals(original.length, gzip.getBytesIn());
+            assertEquals(compressed.size(), gzip.getBytesOut());
+            assertTrue(gzip.getBytesOut() < original.length / 10);
+        }
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed.toByteArray()))) {
+            assertArrayEquals(original, in.readAllBytes());
+        }
+    }
+
+    @Test
+    void testAcceptEncodingParsing() {
+        assertTrue(BlobDownloads.accepts("gzip, deflate, br", "gzip"));
+        assertTrue(BlobDownloads.accepts("br;q=1.0, *;q=0.1", "gzip"));
+        assertFalse(BlobDownloads.accepts("gzip;q=0, *", "gzip"));
+        assertFalse(BlobDownloads.accepts("identity", "gzip"));
+        assertFalse(BlobDownloads.accepts(null, "gzip"));
+    }
+}
@@ -0,0 +1,88 @@
+package com.softsuave.crud.sync;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Memory Comment: Plain unit tests for the change_seq counter. Transactions
+ * are simulated with TransactionSynchronizationManager (what Spring's
+ * transaction manager does for real): next() inside one is "in flight" until
+ * its afterCompletion callback runs.
+ */
+public class ChangeSequenceTest {
+
+    private ChangeSequence changeSequence;
+
+    @BeforeEach
+    void setup() {
+        changeSequence = new ChangeSequence();
+        changeSequence.seed(10);
+    }
+
+    @AfterEach
+    void cleanup() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testNumbersOutsideATransactionAreSafeAtOnce() {
+        assertEquals(11, changeSequence.next());
+        assertEquals(12, changeSequence.next());
+        assertEquals(12, changeSequence.safeWatermark());
+    }
+
+    @Test
+    void testSeedNeverMovesBackwards() {
+        changeSequence.seed(5);
+        assertEquals(11, changeSequence.next());
+    }
+
+    @Test
+    void testWatermarkIsHeldBackByAnOpenTransaction() {
+        // Transaction A takes 11 and stays open
+        TransactionSynchronizationManager.initSynchronization();
+        assertEquals(11, changeSequence.next());
+
+        // Transaction B, on another thread, takes 12 and commits first
+        CompletableFuture.runAsync(() -> {
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                assertEquals(12, changeSequence.next());
+                complete(TransactionSynchronization.STATUS_COMMITTED);
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+        }).join();
+
+        // 12 is committed, but a client that synced to 12 would never see 11
+        assertEquals(10, changeSequence.safeWatermark());
+
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        assertEquals(12, changeSequence.safeWatermark());
+    }
+
+    @Test
+    void testRolledBackNumbersStopHoldingTheWatermark() {
+        TransactionSynchronizationManager.initSynchronization();
+        changeSequence.next();
+        assertEquals(10, changeSequence.safeWatermark());
+
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertEquals(11, changeSequence.safeWatermark()); // a gap, never a missed change
+    }
+
+    // What the transaction manager does when the current thread's transaction ends
+    private static void complete(int status) {
+        TransactionSynchronizationManager.getSynchronizations().forEach(sync -> sync.afterCompletion(status));
+    }
+}
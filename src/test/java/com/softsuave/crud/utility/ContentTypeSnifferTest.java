@@ -0,0 +1,43 @@
+package com.softsuave.crud.utility;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Memory Comment: Plain unit tests for the magic-number sniffer used while
+ * resume uploads stream into the blob store.
+ */
+public class ContentTypeSnifferTest {
+
+    @Test
+    void testKnownMagicNumbers() {
+        assertEquals(ContentTypeSniffer.PDF, sniff("%PDF-1.7\n%âãÏÓ".getBytes(StandardCharsets.ISO_8859_1)));
+        assertEquals(ContentTypeSniffer.ZIP, sniff(new byte[]{'P', 'K', 3, 4, 20, 0}));
+        assertEquals(ContentTypeSniffer.MSWORD,
+                sniff(new byte[]{(byte) 0xD0, (byte) 0xCF, 0x11, (byte) 0xE0, (byte) 0xA1, (byte) 0xB1, 0x1A, (byte) 0xE1, 0}));
+        assertEquals(ContentTypeSniffer.TEXT, sniff("Ravi Kumar\r\nCSE, 81.5%\n".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void testUnknownBinaryAndEmptyInput() {
+        assertNull(sniff(new byte[]{1, 2, 0, 4}));
+        assertNull(ContentTypeSniffer.sniff(new byte[ContentTypeSniffer.HEAD_SIZE], 0));
+    }
+
+    @Test
+    void testResolvePrefersSniffedTypeButKeepsOfficeTypes() {
+        String docx = "application/vnd.openxmlformats-officedocument.wordprocessingml.document";
+
+        assertEquals(ContentTypeSniffer.PDF, ContentTypeSniffer.resolve(ContentTypeSniffer.PDF, "image/png"));
+        assertEquals(docx, ContentTypeSniffer.resolve(ContentTypeSniffer.ZIP, docx));
+        assertEquals("image/gif", ContentTypeSniffer.resolve(null, "image/gif"));
+        assertEquals(ContentTypeSniffer.OCTET_STREAM, ContentTypeSniffer.resolve(null, null));
+    }
+
+    private static String sniff(byte[] bytes) {
+        return ContentTypeSniffer.sniff(bytes, bytes.length);
+    }
+}
@@ -0,0 +1,59 @@
+package com.softsuave.crud.utility;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Memory Comment: Plain unit tests for the streaming CSV reader used by
+ * POST /students/import.
+ */
+public class CsvReaderTest {
+
+    @Test
+    void testPlainAndQuotedFields() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader("name,branch,percentage\r\n\"Kumar, Ravi\",CSE,81.5\n"), 100);
+
+        assertEquals(List.of("name", "branch", "percentage"), csv.readRecord());
+        assertEquals(List.of("Kumar, Ravi", "CSE", "81.5"), csv.readRecord());
+        assertEquals(2, csv.getRecordLine());
+        assertNull(csv.readRecord());
+    }
+
+    @Test
+    void testEscapedQuotesAndLineBreaksInsideQuotes() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader("\"say \"\"hi\"\"\",\"two\nlines\"\nnext,row"), 100);
+
+        assertEquals(List.of("say \"hi\"", "two\nlines"), csv.readRecord());
+        assertEquals(List.of("next", "row"), csv.readRecord());
+        assertEquals(3, csv.getRecordLine()); // the quoted line break moved us one line on
+        assertNull(csv.readRecord());
+    }
+
+    @Test
+    void testTooLongRecordIsFlaggedAndSkipped() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader("abcdefghij,klm\nok,1\n"), 5);
+
+        csv.readRecord();
+        assertTrue(csv.isRecordTooLong());
+
+        assertEquals(List.of("ok", "1"), csv.readRecord());
+        assertFalse(csv.isRecordTooLong());
+    }
+
+    @Test
+    void testRecordOfOnlySeparatorsIsFlaggedAsTooLong() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader(",".repeat(1000) + "\nok,1\n"), 5);
+
+        List<String> fields = csv.readRecord();
+        assertTrue(csv.isRecordTooLong());
+        assertTrue(fields.size() <= 6); // stopped collecting empty fields at the limit
+
+        assertEquals(List.of("ok", "1"), csv.readRecord());
+        assertFalse(csv.isRecordTooLong());
+    }
+}